@@ -1,5 +1,14 @@
 -- Hospital Management System Database Schema
 -- SQLite Database Schema
+-- Reference copy: the application builds this schema through the versioned
+-- migrations in com.hms.repository.SchemaMigrator and records them in SchemaVersion.
+
+-- SchemaVersion Table: Applied schema migrations
+CREATE TABLE IF NOT EXISTS SchemaVersion (
+    version INTEGER PRIMARY KEY,
+    description TEXT NOT NULL,
+    applied_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
 
 -- User Table: Stores system users (doctors, nurses, administrators)
 CREATE TABLE IF NOT EXISTS User (
@@ -46,13 +55,67 @@ CREATE TABLE IF NOT EXISTS Diagnosis (
     FOREIGN KEY (doctor_id) REFERENCES User(user_id)
 );
 
+-- Doctor Table: Stores doctors and their weekly availability
+CREATE TABLE IF NOT EXISTS Doctor (
+    doctor_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    specialty VARCHAR(50),
+    contact VARCHAR(20),
+    availability VARCHAR(100)
+);
+
+-- Appointment Table: start_time is ISO text ('yyyy-MM-dd HH:mm:ss') so it sorts chronologically
+CREATE TABLE IF NOT EXISTS Appointment (
+    appointment_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    patient_id INTEGER NOT NULL,
+    doctor_id INTEGER NOT NULL,
+    start_time TEXT NOT NULL,
+    duration_minutes INTEGER NOT NULL DEFAULT 30 CHECK(duration_minutes > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED' CHECK(status IN ('SCHEDULED', 'COMPLETED', 'CANCELLED')),
+    notes TEXT,
+    FOREIGN KEY (patient_id) REFERENCES Patient(patient_id) ON DELETE CASCADE,
+    FOREIGN KEY (doctor_id) REFERENCES Doctor(doctor_id)
+);
+
 -- Create indexes for better query performance
 CREATE INDEX IF NOT EXISTS idx_patient_name ON Patient(last_name, first_name);
-CREATE INDEX IF NOT EXISTS idx_diagnosis_patient ON Diagnosis(patient_id);
+CREATE INDEX IF NOT EXISTS idx_patient_name_nocase ON Patient(last_name COLLATE NOCASE, first_name COLLATE NOCASE);
+CREATE INDEX IF NOT EXISTS idx_diagnosis_patient_date ON Diagnosis(patient_id, diagnosis_date DESC, diagnosis_id DESC);
+CREATE INDEX IF NOT EXISTS idx_diagnosis_status_date ON Diagnosis(status, diagnosis_date DESC, diagnosis_id DESC);
 CREATE INDEX IF NOT EXISTS idx_diagnosis_doctor ON Diagnosis(doctor_id);
 CREATE INDEX IF NOT EXISTS idx_user_role ON User(role);
+CREATE INDEX IF NOT EXISTS idx_user_email ON User(email COLLATE NOCASE);
+CREATE INDEX IF NOT EXISTS idx_doctor_specialty ON Doctor(specialty);
+CREATE INDEX IF NOT EXISTS idx_appointment_start ON Appointment(start_time);
+CREATE INDEX IF NOT EXISTS idx_appointment_doctor_start ON Appointment(doctor_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_appointment_patient_start ON Appointment(patient_id, start_time);
+
+-- Trigram full-text index for patient search; external content, kept in sync by triggers
+CREATE VIRTUAL TABLE IF NOT EXISTS PatientSearch USING fts5(
+    first_name, last_name, phone, email, emergency_contact,
+    content='Patient', content_rowid='patient_id', tokenize='trigram'
+);
+
+CREATE TRIGGER IF NOT EXISTS patient_search_insert AFTER INSERT ON Patient BEGIN
+    INSERT INTO PatientSearch (rowid, first_name, last_name, phone, email, emergency_contact)
+    VALUES (new.patient_id, new.first_name, new.last_name, new.phone, new.email, new.emergency_contact);
+END;
+
+CREATE TRIGGER IF NOT EXISTS patient_search_delete AFTER DELETE ON Patient BEGIN
+    INSERT INTO PatientSearch (PatientSearch, rowid, first_name, last_name, phone, email, emergency_contact)
+    VALUES ('delete', old.patient_id, old.first_name, old.last_name, old.phone, old.email, old.emergency_contact);
+END;
+
+CREATE TRIGGER IF NOT EXISTS patient_search_update
+AFTER UPDATE OF first_name, last_name, phone, email, emergency_contact ON Patient BEGIN
+    INSERT INTO PatientSearch (PatientSearch, rowid, first_name, last_name, phone, email, emergency_contact)
+    VALUES ('delete', old.patient_id, old.first_name, old.last_name, old.phone, old.email, old.emergency_contact);
+    INSERT INTO PatientSearch (rowid, first_name, last_name, phone, email, emergency_contact)
+    VALUES (new.patient_id, new.first_name, new.last_name, new.phone, new.email, new.emergency_contact);
+END;
 
--- Insert default admin user (password: admin123 - should be hashed in production)
+-- Insert default admin user (password: admin123, replaced by a PBKDF2 hash on first login)
 INSERT OR IGNORE INTO User (username, password, full_name, role, email) 
 VALUES ('admin', 'admin123', 'System Administrator', 'ADMIN', 'admin@hms.com');
 
@@ -1,50 +1,63 @@
 package com.hms.domain;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
 public class Appointment {
-    private String id;
-    private String patientId;
-    private String doctorId;
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
+    private int id;
+    private int patientId;
+    private int doctorId;
     private String patientName;
     private String doctorName;
-    private String date;
-    private String time;
-    private String status;
+    private LocalDateTime scheduledAt;
+    private int durationMinutes = DEFAULT_DURATION_MINUTES;
+    private Status status;
     private String notes;
 
-	public Appointment(String id, String patientId, String doctorId, String patientName, String doctorName, 
-            String date, String time, String status, String notes) {
+    // Enum for appointment status
+    public enum Status {
+        SCHEDULED, COMPLETED, CANCELLED
+    }
+
+    public Appointment() {
+    }
+
+	public Appointment(int id, int patientId, int doctorId, String patientName, String doctorName,
+            LocalDateTime scheduledAt, Status status, String notes) {
 		this.id = id;
         this.patientId = patientId;
         this.doctorId = doctorId;
         this.patientName = patientName;
         this.doctorName = doctorName;
-        this.date = date;
-        this.time = time;
+        this.scheduledAt = scheduledAt;
         this.status = status;
         this.notes = notes;
 	}
 
-	public String getId() {
+	public int getId() {
 		return id;
 	}
 
-	public void setId(String id) {
+	public void setId(int id) {
 		this.id = id;
 	}
 
-	public String getPatientId() {
+	public int getPatientId() {
 		return patientId;
 	}
 
-	public void setPatientId(String patientId) {
+	public void setPatientId(int patientId) {
 		this.patientId = patientId;
 	}
 
-	public String getDoctorId() {
+	public int getDoctorId() {
 		return doctorId;
 	}
 
-	public void setDoctorId(String doctorId) {
+	public void setDoctorId(int doctorId) {
 		this.doctorId = doctorId;
 	}
 
@@ -64,27 +77,27 @@ public class Appointment {
 		this.doctorName = doctorName;
 	}
 
-	public String getDate() {
-		return date;
+	public LocalDateTime getScheduledAt() {
+		return scheduledAt;
 	}
 
-	public void setDate(String date) {
-		this.date = date;
+	public void setScheduledAt(LocalDateTime scheduledAt) {
+		this.scheduledAt = scheduledAt;
 	}
 
-	public String getTime() {
-		return time;
+	public int getDurationMinutes() {
+		return durationMinutes;
 	}
 
-	public void setTime(String time) {
-		this.time = time;
+	public void setDurationMinutes(int durationMinutes) {
+		this.durationMinutes = durationMinutes;
 	}
 
-	public String getStatus() {
+	public Status getStatus() {
 		return status;
 	}
 
-	public void setStatus(String status) {
+	public void setStatus(Status status) {
 		this.status = status;
 	}
 
@@ -95,6 +108,44 @@ public class Appointment {
 	public void setNotes(String notes) {
 		this.notes = notes;
 	}
-	
+
+    /**
+     * Get the appointment day
+     * @return date part of the scheduled time
+     */
+    public LocalDate getDate() {
+        return scheduledAt == null ? null : scheduledAt.toLocalDate();
+    }
+
+    /**
+     * Get the appointment start time of day
+     * @return time part of the scheduled time
+     */
+    public LocalTime getTime() {
+        return scheduledAt == null ? null : scheduledAt.toLocalTime();
+    }
+
+    /**
+     * Get the end of the appointment
+     * @return scheduled time plus duration
+     */
+    public LocalDateTime getEndsAt() {
+        return scheduledAt == null ? null : scheduledAt.plusMinutes(durationMinutes);
+    }
+
+    /**
+     * An appointment is active until it is completed or cancelled
+     * @return true if the appointment is still scheduled
+     */
+    public boolean isActive() {
+        return status == Status.SCHEDULED;
+    }
+
+	@Override
+	public String toString() {
+		return "Appointment [id=" + id + ", patientId=" + patientId + ", doctorId=" + doctorId
+				+ ", scheduledAt=" + scheduledAt + ", durationMinutes=" + durationMinutes
+				+ ", status=" + status + "]";
+	}
 
 }
@@ -0,0 +1,136 @@
+package com.hms.domain;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class Diagnosis {
+    private int diagnosisId;
+    private int patientId;
+    // User ID of the diagnosing doctor
+    private int doctorId;
+    private LocalDateTime diagnosisDate;
+    private String symptoms;
+    private String description;
+    private String prescribedMedication;
+    private String notes;
+    private Status status = Status.ACTIVE;
+
+    // Enum for diagnosis status
+    public enum Status {
+        ACTIVE, RESOLVED, FOLLOW_UP
+    }
+
+    public Diagnosis() {
+    }
+
+    public Diagnosis(int patientId, int doctorId, LocalDateTime diagnosisDate, String description) {
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.diagnosisDate = diagnosisDate;
+        this.description = description;
+    }
+
+	public int getDiagnosisId() {
+		return diagnosisId;
+	}
+
+	public void setDiagnosisId(int diagnosisId) {
+		this.diagnosisId = diagnosisId;
+	}
+
+	public int getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(int patientId) {
+		this.patientId = patientId;
+	}
+
+	public int getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(int doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDateTime getDiagnosisDate() {
+		return diagnosisDate;
+	}
+
+	public void setDiagnosisDate(LocalDateTime diagnosisDate) {
+		this.diagnosisDate = diagnosisDate;
+	}
+
+	public String getSymptoms() {
+		return symptoms;
+	}
+
+	public void setSymptoms(String symptoms) {
+		this.symptoms = symptoms;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public String getPrescribedMedication() {
+		return prescribedMedication;
+	}
+
+	public void setPrescribedMedication(String prescribedMedication) {
+		this.prescribedMedication = prescribedMedication;
+	}
+
+	public String getNotes() {
+		return notes;
+	}
+
+	public void setNotes(String notes) {
+		this.notes = notes;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+    /**
+     * A diagnosis stays open until it is resolved
+     * @return true if the diagnosis is active or awaiting follow-up
+     */
+    public boolean isOpen() {
+        return status == Status.ACTIVE || status == Status.FOLLOW_UP;
+    }
+
+	@Override
+	public String toString() {
+		return "Diagnosis [diagnosisId=" + diagnosisId + ", patientId=" + patientId + ", doctorId=" + doctorId
+				+ ", diagnosisDate=" + diagnosisDate + ", description=" + description + ", status=" + status + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(diagnosisId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Diagnosis other = (Diagnosis) obj;
+		return diagnosisId == other.diagnosisId;
+	}
+
+}
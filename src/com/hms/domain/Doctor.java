@@ -2,7 +2,7 @@ package com.hms.domain;
 
 
 public class Doctor {
-    private String id;
+    private int id;
     private String name;
     private String email;
     private String specialty;
@@ -10,7 +10,13 @@ public class Doctor {
     private String availability;
     private String password;
 
-	public Doctor(String id, String name, String email, String specialty, String contact, String availability) {
+    // Parsed from availability on first use
+    private volatile WeeklySchedule schedule;
+
+	public Doctor() {
+	}
+
+	public Doctor(int id, String name, String email, String specialty, String contact, String availability) {
         this.id = id;
         this.name = name;
         this.email = email;
@@ -20,11 +26,11 @@ public class Doctor {
 		
 	}
 
-	public String getId() {
+	public int getId() {
 		return id;
 	}
 
-	public void setId(String id) {
+	public void setId(int id) {
 		this.id = id;
 	}
 
@@ -66,8 +72,27 @@ public class Doctor {
 
 	public void setAvailability(String availability) {
 		this.availability = availability;
+		this.schedule = null;
 	}
 
+    /**
+     * Get the structured form of the availability string
+     * @return Parsed schedule; EMPTY if the availability cannot be parsed
+     */
+    public WeeklySchedule getSchedule() {
+        WeeklySchedule parsed = schedule;
+        if (parsed == null) {
+            try {
+                parsed = WeeklySchedule.parse(availability);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unreadable availability for doctor " + id + ": " + e.getMessage());
+                parsed = WeeklySchedule.EMPTY;
+            }
+            schedule = parsed;
+        }
+        return parsed;
+    }
+
 	public String getPassword() {
 		return password;
 	}
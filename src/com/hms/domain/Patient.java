@@ -3,6 +3,7 @@ package com.hms.domain;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.time.ZoneId;
 import java.util.Objects;
 
 
@@ -21,6 +22,11 @@ public class Patient {
     private LocalDateTime registrationDate;
     private Integer createdBy;
 
+    // Derived values cached for table rendering; cleared when their source fields change
+    private String fullName;
+    private int age;
+    private volatile long ageValidUntil;
+
     // Enum for gender
     public enum Gender {
         MALE, FEMALE, OTHER
@@ -69,6 +75,7 @@ public class Patient {
 
 	public void setFirstName(String firstName) {
 		this.firstName = firstName;
+		this.fullName = null;
 	}
 
 	public String getLastName() {
@@ -77,6 +84,7 @@ public class Patient {
 
 	public void setLastName(String lastName) {
 		this.lastName = lastName;
+		this.fullName = null;
 	}
 
 	public LocalDate getDateOfBirth() {
@@ -85,6 +93,7 @@ public class Patient {
 
 	public void setDateOfBirth(LocalDate dateOfBirth) {
 		this.dateOfBirth = dateOfBirth;
+		this.ageValidUntil = 0;
 	}
 
 	public Gender getGender() {
@@ -159,22 +168,35 @@ public class Patient {
 		this.createdBy = createdBy;
 	}
     /**
-     * Calculate and return the age of the patient
+     * Calculate and return the age of the patient.
+     * The result is cached until the next local midnight, or until the date of birth changes.
      * @return age in years
      */
     public int getAge() {
         if (dateOfBirth == null) {
             return 0;
         }
-        return Period.between(dateOfBirth, LocalDate.now()).getYears();
+        if (System.currentTimeMillis() < ageValidUntil) {
+            return age;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        age = Period.between(dateOfBirth, today).getYears();
+        ageValidUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return age;
     }
 
     /**
-     * Get full name of the patient
+     * Get full name of the patient, cached until the first or last name changes
      * @return full name
      */
     public String getFullName() {
-        return firstName + " " + lastName;
+        String name = fullName;
+        if (name == null) {
+            name = firstName + " " + lastName;
+            fullName = name;
+        }
+        return name;
     }
 
 	@Override
@@ -0,0 +1,260 @@
+package com.hms.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structured form of a doctor's availability string.
+ * Each weekday maps to a bitset of 15-minute slots (bit 0 is 00:00-00:15),
+ * and exception dates replace the weekday pattern for a single day, so an
+ * availability check is a bitset lookup instead of string parsing.
+ *
+ * Accepted syntax, segments separated by ';':
+ *   "Mon-Fri 9-5"              weekday range, hours; an end at or before the start is read as PM
+ *   "Mon,Wed,Fri 9:30-12 14-18" day list with several ranges
+ *   "Daily 8am-8pm"            every day
+ *   "2026-12-24 9-12"          exception date with its own hours
+ *   "2026-12-25 off"           exception date with no hours
+ *
+ * Instances are immutable.
+ */
+public final class WeeklySchedule {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(new EnumMap<>(DayOfWeek.class), Map.of());
+
+    private static final BitSet NO_SLOTS = new BitSet(SLOTS_PER_DAY);
+
+    private final Map<DayOfWeek, BitSet> weekdays;
+    private final Map<LocalDate, BitSet> exceptions;
+
+    private WeeklySchedule(Map<DayOfWeek, BitSet> weekdays, Map<LocalDate, BitSet> exceptions) {
+        this.weekdays = weekdays;
+        this.exceptions = Collections.unmodifiableMap(exceptions);
+    }
+
+    /**
+     * Parse an availability string
+     * @param availability Text such as "Mon-Fri 9-5"; null or blank gives EMPTY
+     * @return Parsed schedule
+     * @throws IllegalArgumentException if a segment cannot be parsed
+     */
+    public static WeeklySchedule parse(String availability) {
+        if (availability == null || availability.isBlank()) {
+            return EMPTY;
+        }
+        Map<DayOfWeek, BitSet> weekdays = new EnumMap<>(DayOfWeek.class);
+        Map<LocalDate, BitSet> exceptions = new HashMap<>();
+
+        for (String segment : availability.split(";")) {
+            String[] tokens = segment.trim().split("\\s+");
+            if (tokens.length < 2) {
+                throw new IllegalArgumentException("Expected days and hours in \"" + segment.trim() + "\"");
+            }
+            BitSet slots = parseRanges(tokens);
+            LocalDate date = parseDate(tokens[0]);
+            if (date != null) {
+                exceptions.computeIfAbsent(date, d -> new BitSet(SLOTS_PER_DAY)).or(slots);
+            } else {
+                for (DayOfWeek day : parseDays(tokens[0])) {
+                    weekdays.computeIfAbsent(day, d -> new BitSet(SLOTS_PER_DAY)).or(slots);
+                }
+            }
+        }
+        return new WeeklySchedule(weekdays, exceptions);
+    }
+
+    /**
+     * Working slots on a date; the caller may modify the returned copy
+     * @param date Date
+     * @return Bitset of SLOTS_PER_DAY slots
+     */
+    public BitSet slotsOn(LocalDate date) {
+        return (BitSet) slotsFor(date).clone();
+    }
+
+    /**
+     * @param start Start of the interval
+     * @param durationMinutes Length of the interval
+     * @return true if every slot touched by [start, start + duration) is a working slot of that day
+     */
+    public boolean isWorking(LocalDateTime start, int durationMinutes) {
+        int from = slotOf(start.toLocalTime());
+        int to = slotsUntil(start.toLocalTime().toSecondOfDay() / 60 + durationMinutes);
+        if (to > SLOTS_PER_DAY) {
+            return false;
+        }
+        BitSet slots = slotsFor(start.toLocalDate());
+        return slots.nextClearBit(from) >= to;
+    }
+
+    public boolean isEmpty() {
+        if (!exceptions.isEmpty()) {
+            return false;
+        }
+        for (BitSet slots : weekdays.values()) {
+            if (!slots.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Dates whose hours replace the weekday pattern, e.g. holidays; immutable
+     */
+    public Set<LocalDate> getExceptionDates() {
+        return exceptions.keySet();
+    }
+
+    /**
+     * @param time Time of day
+     * @return Index of the slot containing that time
+     */
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    /**
+     * @param slot Slot index, 0 to SLOTS_PER_DAY (the end of the day)
+     * @return Start time of the slot; LocalTime.MAX for the end of the day
+     */
+    public static LocalTime timeOf(int slot) {
+        return slot >= SLOTS_PER_DAY ? LocalTime.MAX : LocalTime.of(0, 0).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /**
+     * @param minuteOfDay Exclusive end, in minutes after midnight
+     * @return Exclusive end slot covering every minute before it
+     */
+    public static int slotsUntil(int minuteOfDay) {
+        return (minuteOfDay + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private BitSet slotsFor(LocalDate date) {
+        BitSet slots = exceptions.get(date);
+        if (slots == null) {
+            slots = weekdays.get(date.getDayOfWeek());
+        }
+        return slots != null ? slots : NO_SLOTS;
+    }
+
+    private static BitSet parseRanges(String[] tokens) {
+        BitSet slots = new BitSet(SLOTS_PER_DAY);
+        if (tokens.length == 2 && tokens[1].equalsIgnoreCase("off")) {
+            return slots;
+        }
+        for (int i = 1; i < tokens.length; i++) {
+            for (String range : tokens[i].split(",")) {
+                if (range.isEmpty()) {
+                    continue;
+                }
+                String[] bounds = range.split("-");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Invalid hours \"" + range + "\"");
+                }
+                int start = parseMinutes(bounds[0]);
+                int end = parseMinutes(bounds[1]);
+                // "9-5": a bare end hour at or before the start is in the afternoon
+                if (end <= start && end <= 12 * 60 && !hasMeridiem(bounds[1])) {
+                    end += 12 * 60;
+                }
+                if (end <= start || end > 24 * 60) {
+                    throw new IllegalArgumentException("Invalid hours \"" + range + "\"");
+                }
+                // Only whole slots inside the range count as working time
+                slots.set((start + SLOT_MINUTES - 1) / SLOT_MINUTES, end / SLOT_MINUTES);
+            }
+        }
+        return slots;
+    }
+
+    private static int parseMinutes(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        boolean meridiem = hasMeridiem(value);
+        int offset = meridiem && value.endsWith("pm") ? 12 * 60 : 0;
+        if (meridiem) {
+            value = value.substring(0, value.length() - 2);
+        }
+        try {
+            int colon = value.indexOf(':');
+            int hours = Integer.parseInt(colon < 0 ? value : value.substring(0, colon));
+            int minutes = colon < 0 ? 0 : Integer.parseInt(value.substring(colon + 1));
+            if (meridiem) {
+                // 12am is midnight and 12pm is noon
+                hours %= 12;
+            }
+            if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59) {
+                throw new IllegalArgumentException("Invalid time \"" + text + "\"");
+            }
+            return hours * 60 + minutes + offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time \"" + text + "\"", e);
+        }
+    }
+
+    private static boolean hasMeridiem(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        return value.endsWith("am") || value.endsWith("pm");
+    }
+
+    private static LocalDate parseDate(String token) {
+        if (token.isEmpty() || !Character.isDigit(token.charAt(0))) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(token);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date \"" + token + "\"", e);
+        }
+    }
+
+    private static Iterable<DayOfWeek> parseDays(String token) {
+        String value = token.toLowerCase(Locale.ROOT);
+        if (value.equals("daily")) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : value.split(",")) {
+            String[] bounds = part.split("-");
+            if (bounds.length == 1) {
+                days.add(parseDay(bounds[0]));
+            } else if (bounds.length == 2) {
+                // Ranges may wrap around the week, e.g. "Sat-Mon"
+                DayOfWeek day = parseDay(bounds[0]);
+                DayOfWeek last = parseDay(bounds[1]);
+                days.add(day);
+                while (day != last) {
+                    day = day.plus(1);
+                    days.add(day);
+                }
+            } else {
+                throw new IllegalArgumentException("Invalid days \"" + token + "\"");
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String text) {
+        if (text.length() >= 3) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day.name().toLowerCase(Locale.ROOT).startsWith(text)) {
+                    return day;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid day \"" + text + "\"");
+    }
+}
@@ -0,0 +1,64 @@
+package com.hms.event;
+
+/**
+ * A committed change to a stored entity, announced by ChangeEventBus.
+ * Patient events are published by PatientDAO once the row is written; doctor
+ * and appointment events by DataService once its in-memory indexes are updated,
+ * so a subscriber that looks the entity up finds the new state.
+ */
+public final class ChangeEvent {
+
+    public enum Entity {
+        PATIENT, DOCTOR, APPOINTMENT
+    }
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE,
+        /** Events were dropped because the queue was full; reload everything instead of applying changes */
+        RESYNC
+    }
+
+    private final Entity entity;
+    private final Operation operation;
+    private final int id;
+    private final long version;
+    private final long sequence;
+
+    ChangeEvent(Entity entity, Operation operation, int id, long version, long sequence) {
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.version = version;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return Changed entity type; null for RESYNC, which concerns every entity
+     */
+    public Entity getEntity() { return entity; }
+    public Operation getOperation() { return operation; }
+
+    /**
+     * @return ID of the changed entity; 0 for RESYNC
+     */
+    public int getId() { return id; }
+
+    /**
+     * @return Position of the change among all published changes; later changes have higher versions
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * @return Changes published for this entity type up to and including this one; 0 for RESYNC.
+     * Compare with ChangeEventBus.getSequence to tell whether changes were missed.
+     */
+    public long getSequence() { return sequence; }
+
+    public boolean isResync() { return operation == Operation.RESYNC; }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent [entity=" + entity + ", operation=" + operation + ", id=" + id
+                + ", version=" + version + ", sequence=" + sequence + "]";
+    }
+}
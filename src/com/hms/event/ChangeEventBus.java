@@ -0,0 +1,137 @@
+package com.hms.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process bus for change events.
+ * Writers publish into a bounded queue and never block: if the queue is full the
+ * event is dropped and subscribers get a RESYNC event instead. One dispatcher
+ * thread drains the queue and hands each subscriber all pending events in one
+ * call, so a burst of changes costs one delivery rather than one per change.
+ * Events are delivered in version order.
+ * The queue size is set with the system property hms.events.queueSize.
+ */
+public final class ChangeEventBus {
+    private static final int QUEUE_SIZE = Integer.getInteger("hms.events.queueSize", 8192);
+    private static final int MAX_BATCH = 1024;
+
+    private final BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final CopyOnWriteArrayList<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object publishLock = new Object();
+    private long version;
+    // Changes published per entity type, counted even while nobody is subscribed
+    private final long[] sequences = new long[ChangeEvent.Entity.values().length];
+    // Set when an event is dropped; the dispatcher then appends a RESYNC to its next batch
+    private volatile boolean overflowed;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private ChangeEventBus() {
+        Thread dispatcher = new Thread(this::dispatch, "hms-change-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    private static class Holder {
+        private static final ChangeEventBus INSTANCE = new ChangeEventBus();
+    }
+
+    public static ChangeEventBus getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Announce a committed change. Call it while the change is still serialized
+     * with other writes to the entity, so that versions follow the write order.
+     * @param entity Changed entity type
+     * @param operation INSERT, UPDATE or DELETE
+     * @param id ID of the changed entity
+     */
+    public void publish(ChangeEvent.Entity entity, ChangeEvent.Operation operation, int id) {
+        synchronized (publishLock) {
+            long sequence = ++sequences[entity.ordinal()];
+            if (listeners.isEmpty()) {
+                return;
+            }
+            ChangeEvent event = new ChangeEvent(entity, operation, id, ++version, sequence);
+            if (queue.offer(event)) {
+                published.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+                overflowed = true;
+            }
+        }
+    }
+
+    /**
+     * Start delivering events to a listener; subscribing it again has no effect
+     * @param listener Listener, called on the dispatcher thread
+     */
+    public void subscribe(ChangeListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void unsubscribe(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param entity Entity type
+     * @return Changes published so far for the entity type, including those published while nobody was subscribed
+     */
+    public long getSequence(ChangeEvent.Entity entity) {
+        synchronized (publishLock) {
+            return sequences[entity.ordinal()];
+        }
+    }
+
+    public long getPublished() { return published.get(); }
+
+    /**
+     * @return Events lost to a full queue; each loss is reported to subscribers as a RESYNC
+     */
+    public long getDropped() { return dropped.get(); }
+    public long getDelivered() { return delivered.get(); }
+    public long getBatches() { return batches.get(); }
+    public int getPending() { return queue.size(); }
+
+    private void dispatch() {
+        List<ChangeEvent> batch = new ArrayList<>(MAX_BATCH + 1);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (overflowed) {
+                overflowed = false;
+                synchronized (publishLock) {
+                    batch.add(new ChangeEvent(null, ChangeEvent.Operation.RESYNC, 0, version, 0));
+                }
+            }
+
+            List<ChangeEvent> events = Collections.unmodifiableList(batch);
+            for (ChangeListener listener : listeners) {
+                try {
+                    listener.onChanges(events);
+                } catch (RuntimeException e) {
+                    System.err.println("Error delivering change events: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+            delivered.addAndGet(batch.size());
+            batches.incrementAndGet();
+            batch = new ArrayList<>(MAX_BATCH + 1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hms.event;
+
+import java.util.List;
+
+/**
+ * Receives batches of change events on the ChangeEventBus dispatcher thread
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Called with every event published since the previous call, oldest first.
+     * Runs on the dispatcher thread: hand UI work to the FX thread and return quickly.
+     * @param events Unmodifiable batch of events
+     */
+    void onChanges(List<ChangeEvent> events);
+}
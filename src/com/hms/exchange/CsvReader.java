@@ -0,0 +1,130 @@
+package com.hms.exchange;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits RFC 4180 CSV text into records and fields.
+ * Reading records only tracks quotes, so that a quoted line break does not end
+ * a record; splitting a record into fields is a separate, stateless step that
+ * can run on other threads.
+ */
+class CsvReader {
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record
+     * @return Raw record text without its line terminator, or null at the end of the input
+     */
+    String nextRecord() throws IOException {
+        StringBuilder record = new StringBuilder(128);
+        boolean quoted = false;
+        boolean any = false;
+        recordLine = line;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return any ? record.toString() : null;
+                }
+            }
+            // Copy up to the next quote or line feed in one step
+            int start = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\n') {
+                position++;
+            }
+            record.append(buffer, start, position - start);
+            any = true;
+            if (position == limit) {
+                continue;
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                quoted = !quoted;
+                record.append(c);
+                continue;
+            }
+            line++;
+            if (quoted) {
+                record.append(c);
+                continue;
+            }
+            int end = record.length();
+            if (end > 0 && record.charAt(end - 1) == '\r') {
+                record.setLength(end - 1);
+            }
+            return record.toString();
+        }
+    }
+
+    /**
+     * @return One-based line number on which the last record returned by nextRecord started
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Split a record into fields, removing quotes and unescaping doubled quotes
+     * @param record Raw record returned by nextRecord
+     * @return Field values; empty unquoted fields are empty strings
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = record.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && record.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted field.");
+                    }
+                    char c = record.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && record.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                // Anything between the closing quote and the delimiter is kept as is
+                while (i < length && record.charAt(i) != ',') {
+                    field.append(record.charAt(i++));
+                }
+            } else {
+                int comma = record.indexOf(',', i);
+                int end = comma < 0 ? length : comma;
+                field.append(record, i, end);
+                i = end;
+            }
+            fields.add(field.toString());
+            if (i >= length) {
+                return fields;
+            }
+            i++; // skip the comma
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hms.exchange;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of an export, saved next to the output file.
+ * Records the last key whose rows are all in the file and the file length at
+ * that point; a resumed export truncates the file to that length and continues
+ * with the following key.
+ */
+class ExportCheckpoint {
+    final ExportTable table;
+    final ExportFormat format;
+    final boolean gzip;
+    final long lastKey;
+    final long offset;
+    final long rows;
+
+    ExportCheckpoint(ExportTable table, ExportFormat format, boolean gzip, long lastKey, long offset, long rows) {
+        this.table = table;
+        this.format = format;
+        this.gzip = gzip;
+        this.lastKey = lastKey;
+        this.offset = offset;
+        this.rows = rows;
+    }
+
+    /**
+     * @return true if the checkpoint was written by an export with the same settings
+     */
+    boolean matches(ExportTable table, ExportFormat format, boolean gzip) {
+        return this.table == table && this.format == format && this.gzip == gzip;
+    }
+
+    /**
+     * Read a checkpoint
+     * @param path Checkpoint file
+     * @return The checkpoint, or null if there is none or it cannot be read
+     */
+    static ExportCheckpoint load(Path path) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return new ExportCheckpoint(
+                    ExportTable.valueOf(properties.getProperty("table")),
+                    ExportFormat.valueOf(properties.getProperty("format")),
+                    Boolean.parseBoolean(properties.getProperty("gzip")),
+                    Long.parseLong(properties.getProperty("lastKey")),
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("rows")));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable export checkpoint " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the checkpoint, replacing the previous one atomically
+     * @param path Checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    void save(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("table", table.name());
+        properties.setProperty("format", format.name());
+        properties.setProperty("gzip", Boolean.toString(gzip));
+        properties.setProperty("lastKey", Long.toString(lastKey));
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("rows", Long.toString(rows));
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Export progress");
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
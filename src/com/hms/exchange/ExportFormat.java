@@ -0,0 +1,123 @@
+package com.hms.exchange;
+
+import java.util.List;
+
+/**
+ * Output formats of TableExporter
+ */
+public enum ExportFormat {
+    /** RFC 4180 CSV with a header line; null values are empty fields */
+    CSV("csv") {
+        @Override
+        void appendHeader(StringBuilder out, List<ExportTable.Column> columns) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendCsvField(out, columns.get(i).name);
+            }
+            out.append("\r\n");
+        }
+
+        @Override
+        void appendRow(StringBuilder out, List<ExportTable.Column> columns, String[] values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (values[i] != null) {
+                    appendCsvField(out, values[i]);
+                }
+            }
+            out.append("\r\n");
+        }
+    },
+
+    /** One JSON object per line, keyed by column name; numbers unquoted, nulls as null */
+    NDJSON("ndjson") {
+        @Override
+        void appendHeader(StringBuilder out, List<ExportTable.Column> columns) {
+            // Every line is self-describing
+        }
+
+        @Override
+        void appendRow(StringBuilder out, List<ExportTable.Column> columns, String[] values) {
+            out.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                ExportTable.Column column = columns.get(i);
+                appendJsonString(out, column.name);
+                out.append(':');
+                if (values[i] == null) {
+                    out.append("null");
+                } else if (column.kind == ExportTable.Kind.INTEGER) {
+                    out.append(values[i]);
+                } else {
+                    appendJsonString(out, values[i]);
+                }
+            }
+            out.append("}\n");
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return Usual file name extension, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract void appendHeader(StringBuilder out, List<ExportTable.Column> columns);
+
+    abstract void appendRow(StringBuilder out, List<ExportTable.Column> columns, String[] values);
+
+    static void appendCsvField(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
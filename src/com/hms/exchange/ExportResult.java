@@ -0,0 +1,78 @@
+package com.hms.exchange;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome and throughput of one TableExporter run
+ */
+public class ExportResult {
+    private final ExportTable table;
+    private final Path target;
+    private final boolean resumed;
+    private final long rows;
+    private final long totalRows;
+    private final long textBytes;
+    private final long fileBytes;
+    private final long elapsedNanos;
+
+    ExportResult(ExportTable table, Path target, boolean resumed, long rows, long totalRows,
+                 long textBytes, long fileBytes, long elapsedNanos) {
+        this.table = table;
+        this.target = target;
+        this.resumed = resumed;
+        this.rows = rows;
+        this.totalRows = totalRows;
+        this.textBytes = textBytes;
+        this.fileBytes = fileBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ExportTable getTable() { return table; }
+    public Path getTarget() { return target; }
+
+    /**
+     * @return true if this run continued an interrupted export from its checkpoint
+     */
+    public boolean isResumed() { return resumed; }
+
+    /**
+     * @return Rows written by this run
+     */
+    public long getRows() { return rows; }
+
+    /**
+     * @return Rows in the finished file, including those written before a resume
+     */
+    public long getTotalRows() { return totalRows; }
+
+    /**
+     * @return Uncompressed CSV or NDJSON bytes produced by this run
+     */
+    public long getTextBytes() { return textBytes; }
+
+    /**
+     * @return Size of the finished file
+     */
+    public long getFileBytes() { return fileBytes; }
+
+    public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return Uncompressed megabytes produced per second
+     */
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : textBytes / 1e6 * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult [table=" + table + ", target=" + target + ", resumed=" + resumed
+                + ", rows=" + rows + ", totalRows=" + totalRows + ", textBytes=" + textBytes
+                + ", fileBytes=" + fileBytes + ", seconds=" + String.format("%.2f", getElapsedSeconds())
+                + ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) + "]";
+    }
+}
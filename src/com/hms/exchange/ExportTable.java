@@ -0,0 +1,130 @@
+package com.hms.exchange;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Tables TableExporter can export, with their columns and export order.
+ * Rows are read in patient_id order along an index, so an interrupted export
+ * can resume after the last patient it completed.
+ */
+public enum ExportTable {
+    PATIENTS("Patient", "patient_id", "patient_id", List.of(
+            new Column("patient_id", Kind.INTEGER),
+            new Column("first_name", Kind.TEXT),
+            new Column("last_name", Kind.TEXT),
+            new Column("date_of_birth", Kind.DATE),
+            new Column("gender", Kind.TEXT),
+            new Column("phone", Kind.TEXT),
+            new Column("email", Kind.TEXT),
+            new Column("address", Kind.TEXT),
+            new Column("emergency_contact", Kind.TEXT),
+            new Column("emergency_phone", Kind.TEXT),
+            new Column("blood_type", Kind.TEXT),
+            new Column("registration_date", Kind.TIMESTAMP),
+            new Column("created_by", Kind.INTEGER))),
+
+    // Ordered like idx_diagnosis_patient_date, so the export never sorts
+    DIAGNOSES("Diagnosis", "patient_id", "patient_id, diagnosis_date DESC, diagnosis_id DESC", List.of(
+            new Column("diagnosis_id", Kind.INTEGER),
+            new Column("patient_id", Kind.INTEGER),
+            new Column("doctor_id", Kind.INTEGER),
+            new Column("diagnosis_date", Kind.TEXT),
+            new Column("symptoms", Kind.TEXT),
+            new Column("diagnosis_description", Kind.TEXT),
+            new Column("prescribed_medication", Kind.TEXT),
+            new Column("notes", Kind.TEXT),
+            new Column("status", Kind.TEXT)));
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String table;
+    private final String order;
+    final String keyColumn;
+    final List<Column> columns;
+
+    ExportTable(String table, String keyColumn, String order, List<Column> columns) {
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.order = order;
+        this.columns = columns;
+    }
+
+    /**
+     * @param resume true to select only the rows after a checkpointed key, bound as the only parameter
+     * @return SELECT statement in export order
+     */
+    String selectSql(boolean resume) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).name);
+        }
+        sql.append(" FROM ").append(table);
+        if (resume) {
+            sql.append(" WHERE ").append(keyColumn).append(" > ?");
+        }
+        return sql.append(" ORDER BY ").append(order).toString();
+    }
+
+    /**
+     * @return Position of the key column in the values read by read()
+     */
+    int keyIndex() {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name.equals(keyColumn)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Key column " + keyColumn + " is not exported.");
+    }
+
+    /**
+     * Read the current row's values as text, in column order
+     * @param rs Result set positioned on a row
+     * @param values Array to fill, one slot per column; reused across rows
+     */
+    void read(ResultSet rs, String[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = columns.get(i).read(rs, i + 1);
+        }
+    }
+
+    /**
+     * How a column is read and written
+     */
+    enum Kind {
+        INTEGER, TEXT,
+        // Stored by the JDBC driver as epoch milliseconds, exported as ISO text
+        DATE, TIMESTAMP
+    }
+
+    static final class Column {
+        final String name;
+        final Kind kind;
+
+        Column(String name, Kind kind) {
+            this.name = name;
+            this.kind = kind;
+        }
+
+        String read(ResultSet rs, int index) throws SQLException {
+            switch (kind) {
+                case INTEGER:
+                    long number = rs.getLong(index);
+                    return rs.wasNull() ? null : Long.toString(number);
+                case DATE:
+                    Date date = rs.getDate(index);
+                    return date == null ? null : date.toLocalDate().toString();
+                case TIMESTAMP:
+                    Timestamp timestamp = rs.getTimestamp(index);
+                    return timestamp == null ? null : timestamp.toLocalDateTime().format(TIMESTAMP_FORMAT);
+                default:
+                    return rs.getString(index);
+            }
+        }
+    }
+}
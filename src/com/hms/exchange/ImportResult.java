@@ -0,0 +1,67 @@
+package com.hms.exchange;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome and throughput of one PatientImporter run
+ */
+public class ImportResult {
+    private final Path source;
+    private final Path rejectsReport;
+    private final long rowsRead;
+    private final long inserted;
+    private final long rejected;
+    private final long elapsedNanos;
+    private final long parseNanos;
+    private final long writeNanos;
+
+    ImportResult(Path source, Path rejectsReport, long rowsRead, long inserted, long rejected,
+                 long elapsedNanos, long parseNanos, long writeNanos) {
+        this.source = source;
+        this.rejectsReport = rejectsReport;
+        this.rowsRead = rowsRead;
+        this.inserted = inserted;
+        this.rejected = rejected;
+        this.elapsedNanos = elapsedNanos;
+        this.parseNanos = parseNanos;
+        this.writeNanos = writeNanos;
+    }
+
+    public Path getSource() { return source; }
+
+    /**
+     * @return CSV listing every rejected row with its line number and reason, or null if no row was rejected
+     */
+    public Path getRejectsReport() { return rejectsReport; }
+
+    /**
+     * @return Data rows read from the file, excluding the header and blank lines
+     */
+    public long getRowsRead() { return rowsRead; }
+    public long getInserted() { return inserted; }
+    public long getRejected() { return rejected; }
+    public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+    /**
+     * @return Time spent parsing and validating, summed over all workers
+     */
+    public double getParseSeconds() { return parseNanos / 1e9; }
+
+    /**
+     * @return Time the writer spent inserting; close to the elapsed time when the database is the bottleneck
+     */
+    public double getWriteSeconds() { return writeNanos / 1e9; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rowsRead * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult [source=" + source + ", rowsRead=" + rowsRead + ", inserted=" + inserted
+                + ", rejected=" + rejected + ", seconds=" + String.format("%.2f", getElapsedSeconds())
+                + ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond())
+                + ", parseSeconds=" + String.format("%.2f", getParseSeconds())
+                + ", writeSeconds=" + String.format("%.2f", getWriteSeconds()) + "]";
+    }
+}
@@ -0,0 +1,517 @@
+package com.hms.exchange;
+
+import com.hms.domain.Patient;
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+import com.hms.repository.BulkInsertResult;
+import com.hms.repository.PatientDAO;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads patients from a CSV file, e.g. a new clinic's registry extract.
+ * The import runs as three stages connected by bounded queues: a reader thread
+ * splits the file into records, parse workers turn batches of records into
+ * validated patients, and the calling thread inserts them through
+ * PatientDAO.insertPatients, one transaction per transactionRows rows. A full
+ * queue blocks the stage feeding it, so a slow database throttles the reader
+ * instead of filling memory. Batches are inserted in file order, so patient IDs
+ * follow the file.
+ *
+ * The header names the columns, as in a TableExporter export. first_name,
+ * last_name, date_of_birth and gender are required; patient_id and created_by
+ * are ignored. Rows that cannot be parsed, fail PatientDAO.validatePatient or
+ * are rejected by the database are skipped and listed in a rejects report next
+ * to the source file (see rejectsPath).
+ */
+public class PatientImporter {
+    /** Rows per insert transaction when none is given */
+    public static final int DEFAULT_TRANSACTION_ROWS = 10_000;
+
+    // Records handed to a parse worker at a time
+    private static final int BATCH_ROWS = 1_000;
+    private static final long POLL_MS = 100;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final int workers;
+    private final int transactionRows;
+    private final PatientDAO patientDAO = new PatientDAO();
+
+    /**
+     * Import with one parse worker per spare processor
+     */
+    public PatientImporter() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_TRANSACTION_ROWS);
+    }
+
+    /**
+     * @param workers Number of parse-and-validate threads
+     * @param transactionRows Rows per insert transaction
+     */
+    public PatientImporter(int workers, int transactionRows) {
+        if (workers < 1 || transactionRows < 1) {
+            throw new IllegalArgumentException("Workers and transaction size must be at least 1.");
+        }
+        this.workers = workers;
+        this.transactionRows = transactionRows;
+    }
+
+    /**
+     * Import every patient in a CSV file
+     * @param source UTF-8 CSV file with a header line
+     * @return Rows read, inserted and rejected, and throughput
+     * @throws ValidationException if the header lacks a required column
+     * @throws DatabaseException if the database cannot be reached
+     * @throws IOException if the file cannot be read or the rejects report cannot be written
+     */
+    public ImportResult importPatients(Path source) throws ValidationException, DatabaseException, IOException {
+        long start = System.nanoTime();
+        Path rejectsPath = rejectsPath(source);
+        Files.deleteIfExists(rejectsPath);
+
+        try (BufferedReader input = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(input);
+            String headerRecord = csv.nextRecord();
+            if (headerRecord == null) {
+                throw new ValidationException("The import file is empty.");
+            }
+            if (headerRecord.startsWith("\uFEFF")) {
+                headerRecord = headerRecord.substring(1);
+            }
+            Header header = new Header(CsvReader.split(headerRecord));
+
+            Pipeline pipeline = new Pipeline(csv, header, rejectsPath);
+            pipeline.run();
+
+            ImportResult result = new ImportResult(source, pipeline.rejected > 0 ? rejectsPath : null,
+                    pipeline.rowsRead, pipeline.inserted, pipeline.rejected, System.nanoTime() - start,
+                    pipeline.parseNanos.get(), pipeline.writeNanos);
+            System.out.println("Imported " + result.getInserted() + " of " + result.getRowsRead()
+                    + " patients from " + source + " in " + String.format("%.2f", result.getElapsedSeconds()) + " s");
+            return result;
+        }
+    }
+
+    /**
+     * @param source Import file
+     * @return File listing the rows of the import that were rejected
+     */
+    public static Path rejectsPath(Path source) {
+        return source.resolveSibling(source.getFileName() + ".rejects.csv");
+    }
+
+    /**
+     * Records read by the reader, numbered so the writer can restore file order
+     */
+    private static final class Batch {
+        static final Batch END = new Batch(-1, 0);
+
+        final long sequence;
+        final long[] lines;
+        final String[] records;
+        int size;
+
+        Batch(long sequence, int capacity) {
+            this.sequence = sequence;
+            this.lines = new long[capacity];
+            this.records = new String[capacity];
+        }
+    }
+
+    /**
+     * A batch after parsing: the valid patients and the rejected records
+     */
+    private static final class Parsed {
+        static final Parsed END = new Parsed(-1, 0);
+
+        final long sequence;
+        final int records;
+        final List<Row> rows;
+        final List<Row> rejects = new ArrayList<>();
+
+        Parsed(long sequence, int records) {
+            this.sequence = sequence;
+            this.records = records;
+            this.rows = new ArrayList<>(records);
+        }
+    }
+
+    private static final class Row {
+        final long line;
+        final String record;
+        final Patient patient;
+        final String reason;
+
+        Row(long line, String record, Patient patient, String reason) {
+            this.line = line;
+            this.record = record;
+            this.patient = patient;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Column positions from the header line
+     */
+    private static final class Header {
+        private final int columnCount;
+        private final int firstName;
+        private final int lastName;
+        private final int dateOfBirth;
+        private final int gender;
+        private final int phone;
+        private final int email;
+        private final int address;
+        private final int emergencyContact;
+        private final int emergencyPhone;
+        private final int bloodType;
+        private final int registrationDate;
+
+        Header(List<String> names) throws ValidationException {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                positions.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            columnCount = names.size();
+            firstName = required(positions, "first_name");
+            lastName = required(positions, "last_name");
+            dateOfBirth = required(positions, "date_of_birth");
+            gender = required(positions, "gender");
+            phone = positions.getOrDefault("phone", -1);
+            email = positions.getOrDefault("email", -1);
+            address = positions.getOrDefault("address", -1);
+            emergencyContact = positions.getOrDefault("emergency_contact", -1);
+            emergencyPhone = positions.getOrDefault("emergency_phone", -1);
+            bloodType = positions.getOrDefault("blood_type", -1);
+            registrationDate = positions.getOrDefault("registration_date", -1);
+        }
+
+        private static int required(Map<String, Integer> positions, String name) throws ValidationException {
+            Integer position = positions.get(name);
+            if (position == null) {
+                throw new ValidationException("The import file has no " + name + " column.");
+            }
+            return position;
+        }
+
+        /**
+         * Build a patient from a record's fields
+         * @throws ValidationException if the record does not have the header's fields or a value cannot be parsed
+         */
+        Patient toPatient(List<String> fields) throws ValidationException {
+            if (fields.size() != columnCount) {
+                throw new ValidationException("Expected " + columnCount + " fields but found " + fields.size() + ".");
+            }
+            Patient patient = new Patient();
+            patient.setFirstName(value(fields, firstName));
+            patient.setLastName(value(fields, lastName));
+
+            String dob = value(fields, dateOfBirth);
+            if (dob != null) {
+                try {
+                    patient.setDateOfBirth(LocalDate.parse(dob));
+                } catch (DateTimeParseException e) {
+                    throw new ValidationException("Invalid date of birth: " + dob);
+                }
+            }
+            String genderName = value(fields, gender);
+            if (genderName != null) {
+                try {
+                    patient.setGender(Patient.Gender.valueOf(genderName.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new ValidationException("Invalid gender: " + genderName);
+                }
+            }
+            patient.setPhone(value(fields, phone));
+            patient.setEmail(value(fields, email));
+            patient.setAddress(value(fields, address));
+            patient.setEmergencyContact(value(fields, emergencyContact));
+            patient.setEmergencyPhone(value(fields, emergencyPhone));
+            patient.setBloodType(value(fields, bloodType));
+
+            String registered = value(fields, registrationDate);
+            if (registered != null) {
+                try {
+                    patient.setRegistrationDate(LocalDateTime.parse(registered.replace('T', ' '), TIMESTAMP_FORMAT));
+                } catch (DateTimeParseException e) {
+                    throw new ValidationException("Invalid registration date: " + registered);
+                }
+            }
+            return patient;
+        }
+
+        private static String value(List<String> fields, int position) {
+            if (position < 0) {
+                return null;
+            }
+            String value = fields.get(position).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * One running import.
+     * The reader and parse workers run on their own threads; the writer runs on
+     * the caller's thread and owns the counters and the rejects report.
+     */
+    private final class Pipeline {
+        private final CsvReader csv;
+        private final Header header;
+        private final Path rejectsPath;
+        private final BlockingQueue<Batch> records = new ArrayBlockingQueue<>(workers * 2);
+        private final BlockingQueue<Parsed> parsed = new ArrayBlockingQueue<>(workers * 2);
+        // Batches read but not yet inserted; bounds the writer's reordering buffer as well as the queues
+        private final Semaphore inFlight = new Semaphore(workers * 4 + 2);
+        private volatile Throwable failure;
+        private volatile boolean stopped;
+
+        private final AtomicLong parseNanos = new AtomicLong();
+        private long writeNanos;
+        private long rowsRead;
+        private long inserted;
+        private long rejected;
+        private BufferedWriter rejects;
+
+        Pipeline(CsvReader csv, Header header, Path rejectsPath) {
+            this.csv = csv;
+            this.header = header;
+            this.rejectsPath = rejectsPath;
+        }
+
+        void run() throws DatabaseException, IOException {
+            ExecutorService threads = Executors.newFixedThreadPool(workers + 1, r -> {
+                Thread t = new Thread(r, "hms-import-" + THREAD_COUNT.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                threads.execute(this::read);
+                for (int i = 0; i < workers; i++) {
+                    threads.execute(this::parse);
+                }
+                write();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Import was interrupted.", e);
+            } finally {
+                stopped = true;
+                threads.shutdownNow();
+                if (rejects != null) {
+                    rejects.close();
+                }
+            }
+        }
+
+        /**
+         * Reader stage: split the file into numbered batches of records
+         */
+        private void read() {
+            try {
+                long sequence = 0;
+                boolean endOfFile = false;
+                while (!endOfFile && !stopped) {
+                    Batch batch = new Batch(sequence, BATCH_ROWS);
+                    while (batch.size < BATCH_ROWS) {
+                        String record = csv.nextRecord();
+                        if (record == null) {
+                            endOfFile = true;
+                            break;
+                        }
+                        if (!record.isEmpty()) {
+                            batch.lines[batch.size] = csv.getRecordLine();
+                            batch.records[batch.size++] = record;
+                        }
+                    }
+                    if (batch.size > 0) {
+                        while (!inFlight.tryAcquire(POLL_MS, TimeUnit.MILLISECONDS)) {
+                            if (stopped) {
+                                return;
+                            }
+                        }
+                        put(records, batch);
+                        sequence++;
+                    }
+                }
+                for (int i = 0; i < workers; i++) {
+                    put(records, Batch.END);
+                }
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Parse stage: build and validate patients; runs on every worker
+         */
+        private void parse() {
+            try {
+                while (true) {
+                    Batch batch = take(records);
+                    if (batch == null) {
+                        return;
+                    }
+                    if (batch == Batch.END) {
+                        put(parsed, Parsed.END);
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    Parsed result = new Parsed(batch.sequence, batch.size);
+                    for (int i = 0; i < batch.size; i++) {
+                        String record = batch.records[i];
+                        try {
+                            Patient patient = header.toPatient(CsvReader.split(record));
+                            patientDAO.validatePatient(patient);
+                            result.rows.add(new Row(batch.lines[i], record, patient, null));
+                        } catch (ValidationException | IllegalArgumentException e) {
+                            result.rejects.add(new Row(batch.lines[i], record, null, e.getMessage()));
+                        }
+                    }
+                    parseNanos.addAndGet(System.nanoTime() - start);
+                    put(parsed, result);
+                }
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Writer stage: insert parsed batches in file order, transactionRows rows per transaction
+         */
+        private void write() throws InterruptedException, DatabaseException, IOException {
+            TreeMap<Long, Parsed> pending = new TreeMap<>();
+            List<Row> transaction = new ArrayList<>(transactionRows + BATCH_ROWS);
+            long next = 0;
+            int finishedWorkers = 0;
+
+            while (finishedWorkers < workers) {
+                Parsed batch = parsed.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                checkFailure();
+                if (batch == null) {
+                    continue;
+                }
+                if (batch == Parsed.END) {
+                    finishedWorkers++;
+                    continue;
+                }
+                pending.put(batch.sequence, batch);
+                while ((batch = pending.remove(next)) != null) {
+                    next++;
+                    rowsRead += batch.records;
+                    for (Row reject : batch.rejects) {
+                        reject(reject.line, reject.reason, reject.record);
+                    }
+                    transaction.addAll(batch.rows);
+                    inFlight.release();
+                    if (transaction.size() >= transactionRows) {
+                        insert(transaction);
+                    }
+                }
+            }
+            checkFailure();
+            insert(transaction);
+        }
+
+        private void insert(List<Row> transaction) throws DatabaseException, IOException {
+            if (transaction.isEmpty()) {
+                return;
+            }
+            List<Patient> patients = new ArrayList<>(transaction.size());
+            for (Row row : transaction) {
+                patients.add(row.patient);
+            }
+            long start = System.nanoTime();
+            BulkInsertResult result = patientDAO.insertPatients(patients, patients.size());
+            writeNanos += System.nanoTime() - start;
+
+            inserted += result.getInsertedCount();
+            for (BulkInsertResult.RowFailure failure : result.getFailures()) {
+                Row row = transaction.get(failure.getRowIndex());
+                reject(row.line, failure.getMessage(), row.record);
+            }
+            transaction.clear();
+        }
+
+        private void reject(long line, String reason, String record) throws IOException {
+            if (rejects == null) {
+                rejects = Files.newBufferedWriter(rejectsPath, StandardCharsets.UTF_8);
+                rejects.write("line,reason,record\r\n");
+            }
+            StringBuilder row = new StringBuilder();
+            row.append(line).append(',');
+            ExportFormat.appendCsvField(row, reason == null ? "" : reason);
+            row.append(',');
+            ExportFormat.appendCsvField(row, record);
+            rejects.write(row.append("\r\n").toString());
+            rejected++;
+        }
+
+        private <T> void put(BlockingQueue<T> queue, T item) throws InterruptedException {
+            while (!queue.offer(item, POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new InterruptedException("Import stopped.");
+                }
+            }
+        }
+
+        /**
+         * @return The next item, or null once the import has stopped
+         */
+        private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+            T item;
+            while ((item = queue.poll(POLL_MS, TimeUnit.MILLISECONDS)) == null) {
+                if (stopped) {
+                    return null;
+                }
+            }
+            return item;
+        }
+
+        private void fail(Throwable e) {
+            if (!stopped) {
+                failure = e;
+                stopped = true;
+            }
+        }
+
+        private void checkFailure() throws IOException {
+            Throwable e = failure;
+            if (e == null) {
+                return;
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            throw new IOException("Import failed: " + e.getMessage(), e);
+        }
+    }
+}
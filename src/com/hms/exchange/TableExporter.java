@@ -0,0 +1,195 @@
+package com.hms.exchange;
+
+import com.hms.exception.DatabaseException;
+import com.hms.repository.DBHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a table to a CSV or NDJSON file, optionally gzip-compressed.
+ * Rows are read from a forward-only result set and written as they arrive, so
+ * memory use does not grow with the table.
+ *
+ * Every checkpointRows rows, at the next patient_id boundary, the output is
+ * flushed and synced and a checkpoint file is written next to it (see
+ * checkpointPath). If an export is interrupted, running it again with the same
+ * settings resumes after the last checkpointed patient instead of starting over.
+ * Gzip output ends a gzip member at every checkpoint; gzip readers treat
+ * concatenated members as one stream.
+ */
+public class TableExporter {
+    /** Rows between checkpoints when none is given; set with hms.export.checkpointRows */
+    public static final int DEFAULT_CHECKPOINT_ROWS = Integer.getInteger("hms.export.checkpointRows", 50_000);
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+    // Encoded and handed to the stream whenever this much text is pending
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    private final ExportFormat format;
+    private final boolean gzip;
+    private final int checkpointRows;
+
+    public TableExporter(ExportFormat format, boolean gzip) {
+        this(format, gzip, DEFAULT_CHECKPOINT_ROWS);
+    }
+
+    /**
+     * @param format Output format
+     * @param gzip true to gzip the output
+     * @param checkpointRows Rows between checkpoints
+     */
+    public TableExporter(ExportFormat format, boolean gzip, int checkpointRows) {
+        if (checkpointRows < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1 row.");
+        }
+        this.format = format;
+        this.gzip = gzip;
+        this.checkpointRows = checkpointRows;
+    }
+
+    /**
+     * Export a table, resuming an interrupted export of the same table and settings to the same file
+     * @param table Table to export
+     * @param target Output file; replaced unless the export resumes
+     * @return Rows written and throughput
+     * @throws DatabaseException if the table cannot be read
+     * @throws IOException if the output cannot be written
+     */
+    public ExportResult export(ExportTable table, Path target) throws DatabaseException, IOException {
+        Path checkpointPath = checkpointPath(target);
+        ExportCheckpoint resume = ExportCheckpoint.load(checkpointPath);
+        if (resume != null && (!resume.matches(table, format, gzip)
+                || !Files.exists(target) || Files.size(target) < resume.offset)) {
+            System.err.println("Ignoring export checkpoint " + checkpointPath + ": it does not match " + target);
+            resume = null;
+        }
+
+        long start = System.nanoTime();
+        Export export = new Export(table, resume);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             Connection conn = DBHandler.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(table.selectSql(resume != null),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            long offset = resume == null ? 0 : resume.offset;
+            channel.truncate(offset);
+            channel.position(offset);
+            if (resume != null) {
+                pstmt.setLong(1, resume.lastKey);
+            }
+
+            export.run(channel, pstmt, checkpointPath);
+            Files.deleteIfExists(checkpointPath);
+
+            ExportResult result = new ExportResult(table, target, resume != null, export.rows,
+                    export.totalRows, export.textBytes, channel.size(), System.nanoTime() - start);
+            System.out.println("Exported " + result.getRows() + " " + table.name().toLowerCase() + " rows to "
+                    + target + " in " + String.format("%.2f", result.getElapsedSeconds()) + " s");
+            return result;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error exporting " + table.name().toLowerCase() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param target Output file of an export
+     * @return File in which the export records its progress while it runs
+     */
+    public static Path checkpointPath(Path target) {
+        return target.resolveSibling(target.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * State of one running export
+     */
+    private final class Export {
+        private final ExportTable table;
+        private final ExportCheckpoint resume;
+        private final StringBuilder text = new StringBuilder(FLUSH_CHARS + 4096);
+        private ChannelOutput out;
+        private OutputStream stream;
+        private long rows;
+        private long totalRows;
+        private long textBytes;
+
+        Export(ExportTable table, ExportCheckpoint resume) {
+            this.table = table;
+            this.resume = resume;
+            this.totalRows = resume == null ? 0 : resume.rows;
+        }
+
+        void run(FileChannel channel, PreparedStatement pstmt, Path checkpointPath) throws SQLException, IOException {
+            out = new ChannelOutput(channel, BUFFER_BYTES);
+            stream = open();
+            if (resume == null) {
+                format.appendHeader(text, table.columns);
+            }
+
+            String[] values = new String[table.columns.size()];
+            int keyIndex = table.keyIndex();
+            long currentKey = resume == null ? Long.MIN_VALUE : resume.lastKey;
+            long sinceCheckpoint = 0;
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    table.read(rs, values);
+                    long key = Long.parseLong(values[keyIndex]);
+                    if (key != currentKey) {
+                        // Every row of currentKey has been appended, so the file can end here
+                        if (sinceCheckpoint >= checkpointRows) {
+                            checkpoint(channel, checkpointPath, currentKey);
+                            sinceCheckpoint = 0;
+                        }
+                        currentKey = key;
+                    }
+                    format.appendRow(text, table.columns, values);
+                    rows++;
+                    totalRows++;
+                    sinceCheckpoint++;
+                    if (text.length() >= FLUSH_CHARS) {
+                        writeText();
+                    }
+                }
+            }
+
+            writeText();
+            stream.close();
+            channel.force(false);
+        }
+
+        /**
+         * Make everything up to lastKey durable and record it
+         */
+        private void checkpoint(FileChannel channel, Path checkpointPath, long lastKey) throws IOException {
+            writeText();
+            // Ends the gzip member, or just drains the buffer; the channel stays open
+            stream.close();
+            channel.force(false);
+            new ExportCheckpoint(table, format, gzip, lastKey, channel.position(), totalRows).save(checkpointPath);
+            stream = open();
+        }
+
+        private OutputStream open() throws IOException {
+            return gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : out;
+        }
+
+        private void writeText() throws IOException {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            stream.write(bytes);
+            textBytes += bytes.length;
+            text.setLength(0);
+        }
+    }
+}
@@ -1,38 +1,185 @@
 package com.hms.presentation;
 import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
-import javafx.scene.control.cell.PropertyValueFactory;
 import com.hms.domain.Appointment;
+import com.hms.event.ChangeEvent;
 import com.hms.service.DataService;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
 
 
 
+public class AppointmentController implements ManagedView {
+    private static final String ALL_STATUSES = "All";
+    // Order of getAppointmentsByStatus
+    private static final Comparator<Appointment> BY_TIME =
+            Comparator.comparing(Appointment::getScheduledAt).thenComparingInt(Appointment::getId);
 
-public class AppointmentController {
     @FXML private TableView<Appointment> appointmentsTable;
     @FXML private TableColumn<Appointment, String> patientColumn;
     @FXML private TableColumn<Appointment, String> doctorColumn;
-    @FXML private TableColumn<Appointment, String> dateColumn;
-    @FXML private TableColumn<Appointment, String> timeColumn;
-    @FXML private TableColumn<Appointment, String> statusColumn;
+    @FXML private TableColumn<Appointment, LocalDate> dateColumn;
+    @FXML private TableColumn<Appointment, LocalTime> timeColumn;
+    @FXML private TableColumn<Appointment, Appointment.Status> statusColumn;
+    @FXML private ComboBox<String> statusFilter;
+
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private final LiveUpdates live = new LiveUpdates(ChangeEvent.Entity.APPOINTMENT, this::applyChanges);
+    // Status shown by the current rows; null for all
+    private Appointment.Status shownStatus;
+    // Set when a load was cancelled before its rows were shown
+    private boolean stale;
 
     @FXML
     public void initialize() {
-        patientColumn.setCellValueFactory(new PropertyValueFactory<>("patientName"));
-        doctorColumn.setCellValueFactory(new PropertyValueFactory<>("doctorName"));
-        dateColumn.setCellValueFactory(new PropertyValueFactory<>("date"));
-        timeColumn.setCellValueFactory(new PropertyValueFactory<>("time"));
-        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        patientColumn.setCellValueFactory(Cells.value(Appointment::getPatientName));
+        doctorColumn.setCellValueFactory(Cells.value(Appointment::getDoctorName));
+        dateColumn.setCellValueFactory(Cells.value(Appointment::getDate));
+        timeColumn.setCellValueFactory(Cells.value(Appointment::getTime));
+        statusColumn.setCellValueFactory(Cells.value(Appointment::getStatus));
+
+        statusFilter.getItems().add(ALL_STATUSES);
+        for (Appointment.Status status : Appointment.Status.values()) {
+            statusFilter.getItems().add(status.name());
+        }
+        statusFilter.getSelectionModel().selectFirst();
+        statusFilter.valueProperty().addListener((obs, oldStatus, newStatus) -> loadAppointments());
+
+        loadAppointments();
+    }
+
+    private void loadAppointments() {
+        appointmentsTable.setPlaceholder(new Label("Loading appointments..."));
+        stale = false;
+        String selected = statusFilter.getValue();
+        Appointment.Status status = selected == null || selected.equals(ALL_STATUSES)
+                ? null : Appointment.Status.valueOf(selected);
+        // Changes made while the rows load are applied on top of them afterwards
+        live.hold();
+        // Filtering reads the status index rather than scanning every appointment
+        loader.load(() -> FXCollections.observableArrayList(status == null
+                        ? DataService.getInstance().getAppointments()
+                        : DataService.getInstance().getAppointmentsByStatus(status)),
+                appointments -> {
+                    appointmentsTable.setPlaceholder(new Label("No appointments"));
+                    shownStatus = status;
+                    appointmentsTable.setItems(appointments);
+                    live.release();
+                },
+                error -> {
+                    System.err.println("Error loading appointments: " + error.getMessage());
+                    error.printStackTrace();
+                    live.release();
+                });
+    }
+
+    /**
+     * Insert, replace or remove only the rows that changed, keeping the selection and scroll position
+     */
+    private void applyChanges(LiveUpdates.Changes changes) {
+        if (changes.isResync()) {
+            loadAppointments();
+            return;
+        }
+        ObservableList<Appointment> rows = appointmentsTable.getItems();
+        TableAnchor<Appointment> anchor = TableAnchor.capture(appointmentsTable, Appointment::getId,
+                id -> indexOf(rows, id));
+        for (Map.Entry<Integer, ChangeEvent.Operation> change : changes.getOperations().entrySet()) {
+            Appointment appointment = change.getValue() == ChangeEvent.Operation.DELETE
+                    ? null : DataService.getInstance().getAppointmentById(change.getKey());
+            int index = indexOf(rows, change.getKey());
+            if (appointment == null || (shownStatus != null && appointment.getStatus() != shownStatus)) {
+                if (index >= 0) {
+                    rows.remove(index);
+                }
+            } else if (shownStatus == null) {
+                // All appointments are listed in booking order, so a row never moves
+                if (index >= 0) {
+                    rows.set(index, appointment);
+                } else {
+                    rows.add(appointment);
+                }
+            } else {
+                place(rows, index, appointment);
+            }
+        }
+        anchor.restore();
+    }
 
-        appointmentsTable.setItems(
-                FXCollections.observableArrayList(
-                    DataService.getInstance().getAppointments()));
-          
+    /**
+     * Put an appointment at its position by time, moving it only if its time changed
+     */
+    private static void place(ObservableList<Appointment> rows, int index, Appointment appointment) {
+        boolean inOrder = index >= 0
+                && (index == 0 || BY_TIME.compare(rows.get(index - 1), appointment) < 0)
+                && (index == rows.size() - 1 || BY_TIME.compare(appointment, rows.get(index + 1)) < 0);
+        if (inOrder) {
+            rows.set(index, appointment);
+            return;
+        }
+        if (index >= 0) {
+            rows.remove(index);
+        }
+        int position = binarySearch(rows, appointment);
+        rows.add(position, appointment);
     }
 
+    private static int binarySearch(List<Appointment> rows, Appointment appointment) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BY_TIME.compare(rows.get(mid), appointment) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
 
+    private static int indexOf(List<Appointment> rows, int appointmentId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId() == appointmentId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void refresh() {
+        // Rows were kept current while shown; reload only if changes were missed while hidden
+        boolean missed = live.show();
+        if (missed || stale) {
+            loadAppointments();
+        }
+    }
+
+    @Override
+    public void onHidden() {
+        live.hide();
+        if (loader.isLoading()) {
+            loader.cancel();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        live.hide();
+        loader.cancel();
+    }
 }
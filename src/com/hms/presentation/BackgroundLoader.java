@@ -0,0 +1,101 @@
+package com.hms.presentation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+/**
+ * Runs data queries off the JavaFX application thread.
+ * Each controller owns one loader; starting a new load cancels the previous
+ * one, so a stale result can never overwrite a newer one. Results are handed
+ * to the FX thread in a single callback.
+ */
+public class BackgroundLoader {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "hms-loader-" + THREAD_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Task<?> current;
+
+    /**
+     * Run a query in the background
+     * @param query Work to run off the FX thread
+     * @param onLoaded Receives the result on the FX thread, unless the load was cancelled or superseded
+     */
+    public <T> void load(Callable<T> query, Consumer<T> onLoaded) {
+        load(query, onLoaded, error -> {
+            System.err.println("Error loading data: " + error.getMessage());
+            error.printStackTrace();
+        });
+    }
+
+    /**
+     * Run a query in the background.
+     * When called off the FX thread (e.g. from a view being preloaded), the load
+     * is started from the FX thread instead.
+     * @param query Work to run off the FX thread
+     * @param onLoaded Receives the result on the FX thread, unless the load was cancelled or superseded
+     * @param onFailed Receives the failure on the FX thread, unless the load was cancelled or superseded
+     */
+    public <T> void load(Callable<T> query, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> load(query, onLoaded, onFailed));
+            return;
+        }
+        cancel();
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        // A newer load may have started after this task finished but before its
+        // handler ran; the task can no longer be cancelled then, so drop its result here
+        task.setOnSucceeded(e -> {
+            if (current != task) {
+                return;
+            }
+            current = null;
+            onLoaded.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            if (current != task) {
+                return;
+            }
+            current = null;
+            onFailed.accept(task.getException());
+        });
+        current = task;
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Submit work that is not tied to a view, e.g. preloading; it is never cancelled
+     * @param work Task to run on the loader threads
+     */
+    public static void submit(Task<?> work) {
+        EXECUTOR.execute(work);
+    }
+
+    /**
+     * Cancel the load in progress, if any
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+    }
+
+    public boolean isLoading() {
+        return current != null;
+    }
+}
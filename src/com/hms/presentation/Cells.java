@@ -0,0 +1,67 @@
+package com.hms.presentation;
+
+import java.util.function.Function;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+/**
+ * Typed cell value factories for TableColumns.
+ * They call the getter directly through a method reference instead of resolving
+ * it by reflection as PropertyValueFactory does, and wrap the result in a
+ * minimal constant ObservableValue rather than a full property object.
+ * Rows are immutable from the cell's point of view: when a row changes, the
+ * table re-queries the factory.
+ */
+final class Cells {
+
+    private Cells() {
+    }
+
+    /**
+     * Build a cell value factory from a getter
+     * @param getter Accessor such as Patient::getFullName
+     * @return Factory for TableColumn.setCellValueFactory
+     */
+    static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> value(Function<S, T> getter) {
+        return features -> {
+            S row = features.getValue();
+            return new ConstantValue<>(row == null ? null : getter.apply(row));
+        };
+    }
+
+    /**
+     * ObservableValue that never changes, so it keeps no listeners
+     */
+    private static final class ConstantValue<T> implements ObservableValue<T> {
+        private final T value;
+
+        private ConstantValue(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+    }
+}
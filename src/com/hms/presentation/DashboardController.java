@@ -1,22 +1,73 @@
 package com.hms.presentation;
 
+import com.hms.event.ChangeEventBus;
+import com.hms.event.ChangeListener;
 import com.hms.service.DataService;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 
-public class DashboardController {
+public class DashboardController implements ManagedView {
     @FXML private Label totalPatientsLabel;
     @FXML private Label totalDoctorsLabel;
     @FXML private Label activeAppointmentsLabel;
     @FXML private Label revenueLabel;
 
-    @FXML
-    public void initialize() {
-        var stats = DataService.getInstance().getStats();
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private volatile boolean shown;
+    // At most one reload is queued on the FX thread however many changes arrive meanwhile
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    // The counters are cheap to read, so any change simply reloads them while the dashboard is shown
+    private final ChangeListener changeListener = events -> {
+        if (shown && reloadQueued.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                reloadQueued.set(false);
+                if (shown) {
+                    // Keep the current figures on screen until the new ones arrive
+                    loader.load(() -> DataService.getInstance().getStats(), this::showStats);
+                }
+            });
+        }
+    };
+
+    private void loadStats() {
+        for (Label label : new Label[] { totalPatientsLabel, totalDoctorsLabel, activeAppointmentsLabel, revenueLabel }) {
+            label.setText("...");
+        }
+        loader.load(() -> DataService.getInstance().getStats(), this::showStats);
+    }
+
+    private void showStats(DataService.DashboardStats stats) {
         totalPatientsLabel.setText(String.valueOf(stats.totalPatients));
         totalDoctorsLabel.setText(String.valueOf(stats.totalDoctors));
         activeAppointmentsLabel.setText(String.valueOf(stats.activeAppointments));
         revenueLabel.setText("$" + stats.revenue);
     }
+
+    /**
+     * Called by MainLayoutController whenever the dashboard is shown, including the first time
+     */
+    @Override
+    public void refresh() {
+        shown = true;
+        // Subscribed only while shown, so a hidden or discarded dashboard is not kept reachable by the bus
+        ChangeEventBus.getInstance().subscribe(changeListener);
+        loadStats();
+    }
+
+    @Override
+    public void onHidden() {
+        shown = false;
+        ChangeEventBus.getInstance().unsubscribe(changeListener);
+        loader.cancel();
+    }
+
+    @Override
+    public void dispose() {
+        onHidden();
+    }
 }
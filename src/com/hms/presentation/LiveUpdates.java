@@ -0,0 +1,190 @@
+package com.hms.presentation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.hms.event.ChangeEvent;
+import com.hms.event.ChangeEventBus;
+import com.hms.event.ChangeListener;
+
+import javafx.application.Platform;
+
+/**
+ * Feeds one view the changes to one entity type.
+ * Events arriving from ChangeEventBus are merged per ID until the FX thread
+ * runs the single Platform.runLater scheduled for them, so everything that
+ * changed within one frame is applied in one pulse. It is only subscribed while
+ * the view is shown, so a hidden or discarded view is neither updated nor kept
+ * reachable by the bus; on show, the entity's change sequence tells whether
+ * changes were missed meanwhile. While it is held (during a full reload)
+ * changes are collected but not applied, and are delivered once the reloaded
+ * rows are in place.
+ */
+class LiveUpdates implements ChangeListener {
+    /** Changes merged into one pulse before the view is told to reload instead; set with hms.live.maxChanges */
+    static final int MAX_CHANGES = Integer.getInteger("hms.live.maxChanges", 500);
+
+    private final ChangeEvent.Entity entity;
+    private final Consumer<Changes> apply;
+
+    // Guarded by this
+    private Changes pending = new Changes();
+    private boolean scheduled;
+    private boolean shown;
+    private boolean held;
+    private boolean missed;
+    // Sequence of the last change received; the view's rows reflect every change up to it
+    private long received;
+
+    /**
+     * Create the updates hidden; rows the view loads from now on reflect every change published so far
+     * @param entity Entity type whose changes the view shows
+     * @param apply Applies one pulse of merged changes on the FX thread
+     */
+    LiveUpdates(ChangeEvent.Entity entity, Consumer<Changes> apply) {
+        this.entity = entity;
+        this.apply = apply;
+        this.received = ChangeEventBus.getInstance().getSequence(entity);
+    }
+
+    @Override
+    public void onChanges(List<ChangeEvent> events) {
+        synchronized (this) {
+            boolean any = false;
+            for (ChangeEvent event : events) {
+                if (event.isResync()) {
+                    pending.resync();
+                    any = true;
+                } else if (event.getEntity() == entity) {
+                    pending.merge(event.getId(), event.getOperation());
+                    received = Math.max(received, event.getSequence());
+                    any = true;
+                }
+            }
+            if (!any) {
+                return;
+            }
+            if (!shown) {
+                pending = new Changes();
+                missed = true;
+                return;
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Unsubscribe while the view is off screen or once it is discarded
+     */
+    void hide() {
+        synchronized (this) {
+            shown = false;
+            if (!pending.isEmpty()) {
+                pending = new Changes();
+                missed = true;
+            }
+        }
+        ChangeEventBus.getInstance().unsubscribe(this);
+    }
+
+    /**
+     * Subscribe and resume applying changes
+     * @return true if changes were published that the view did not receive or apply, so its rows are stale
+     */
+    boolean show() {
+        ChangeEventBus bus = ChangeEventBus.getInstance();
+        // Subscribe first: any change published after the sequence is read is delivered
+        bus.subscribe(this);
+        long published = bus.getSequence(entity);
+        synchronized (this) {
+            shown = true;
+            boolean stale = missed || published != received;
+            missed = false;
+            received = Math.max(received, published);
+            return stale;
+        }
+    }
+
+    /**
+     * Keep collecting changes without applying them, e.g. while the rows are being reloaded
+     */
+    synchronized void hold() {
+        held = true;
+    }
+
+    /**
+     * Apply the changes collected while held; a change the reload already saw is applied again harmlessly
+     */
+    synchronized void release() {
+        held = false;
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (!scheduled && !held) {
+            scheduled = true;
+            Platform.runLater(this::pulse);
+        }
+    }
+
+    private void pulse() {
+        Changes changes;
+        synchronized (this) {
+            scheduled = false;
+            if (held || !shown || pending.isEmpty()) {
+                return;
+            }
+            changes = pending;
+            pending = new Changes();
+        }
+        apply.accept(changes);
+    }
+
+    /**
+     * Changes of one pulse, merged to the net operation per ID
+     */
+    static final class Changes {
+        private final Map<Integer, ChangeEvent.Operation> operations = new LinkedHashMap<>();
+        private boolean resync;
+
+        private void merge(int id, ChangeEvent.Operation operation) {
+            if (resync) {
+                return;
+            }
+            // An update to a row the view has not seen yet is still an insert for the view
+            ChangeEvent.Operation previous = operations.get(id);
+            operations.put(id, previous == ChangeEvent.Operation.INSERT
+                    && operation == ChangeEvent.Operation.UPDATE ? previous : operation);
+            if (operations.size() > MAX_CHANGES) {
+                resync();
+            }
+        }
+
+        private void resync() {
+            resync = true;
+            operations.clear();
+        }
+
+        boolean isEmpty() {
+            return !resync && operations.isEmpty();
+        }
+
+        /**
+         * @return true if changes were lost or too many arrived at once; the view should reload instead
+         */
+        boolean isResync() {
+            return resync;
+        }
+
+        /**
+         * @return Net operation per changed ID, in order of first change
+         */
+        Map<Integer, ChangeEvent.Operation> getOperations() {
+            return operations;
+        }
+    }
+}
@@ -21,6 +21,8 @@ public class LoginController {
     @FXML
     private Label errorLabel;
 
+    private final BackgroundLoader loader = new BackgroundLoader();
+
     @FXML
     private void handleLogin() {
         String identifier = emailField.getText().trim();
@@ -32,9 +34,18 @@ public class LoginController {
             return;
         }
 
-        try {
-            User user = DataService.getInstance().authenticate(identifier, password);
+        // Password hashing is deliberately slow, so check the credentials off the FX thread
+        loader.load(() -> DataService.getInstance().authenticate(identifier, password),
+                this::onAuthenticated,
+                error -> {
+                    errorLabel.setText("An unexpected error occurred.");
+                    errorLabel.setVisible(true);
+                    error.printStackTrace();
+                });
+    }
 
+    private void onAuthenticated(User user) {
+        try {
             if (user != null) {
                 // Navigate to main layout by changing the current scene root
                 Parent root = FXMLLoader.load(getClass().getResource("/com/hms/view/main_layout.fxml"));
@@ -1,9 +1,13 @@
 package com.hms.presentation;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.hms.application.App;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,13 +15,38 @@ import javafx.scene.layout.BorderPane;
 
 public class MainLayoutController {
 
+    // Views parsed in the background right after login so the first switch is instant
+    private static final List<String> PRELOADED_VIEWS = List.of("Patient", "Appointment", "Staff");
+
     @FXML
     private BorderPane mainLayout;
 
+    // Parsed views by name; only touched on the FX thread
+    private final Map<String, LoadedView> viewCache = new HashMap<>();
+
+    // Controller of the view currently in the center, told when it is replaced
+    private Object currentController;
+    // Set on logout; views preloaded afterwards are disposed of right away
+    private boolean disposed;
+
+    /**
+     * A parsed view together with its controller
+     */
+    private static final class LoadedView {
+        private final Parent root;
+        private final Object controller;
+
+        private LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
     @FXML
     public void initialize() {
         // Load Dashboard by default
         loadView("Dashboard");
+        preloadViews();
     }
 
     @FXML
@@ -34,6 +63,8 @@ public class MainLayoutController {
 
     @FXML
     private void handleLogout() {
+        hideCurrentView();
+        disposeViews();
         try {
             App.setRoot("/com/hms/view/Login.fxml");
         } catch (Exception e) {
@@ -41,17 +72,92 @@ public class MainLayoutController {
         }
     }
 
+    /**
+     * Show a view, parsing its FXML only the first time.
+     * The view's controller is told every time it is shown, so it can subscribe
+     * to changes and reload data that went stale while it was hidden.
+     */
     private void loadView(String viewName) {
         try {
-            FXMLLoader loader = new FXMLLoader(
-                    App.class.getResource("/com/hms/view/" + viewName + ".fxml")
-            );
+            LoadedView view = viewCache.get(viewName);
+            if (view == null) {
+                view = parseView(viewName);
+                viewCache.put(viewName, view);
+            } else if (view.root == mainLayout.getCenter()) {
+                return;
+            }
 
-            Parent view = loader.load();
-            mainLayout.setCenter(view);
+            hideCurrentView();
+            mainLayout.setCenter(view.root);
+            currentController = view.controller;
+            if (view.controller instanceof ManagedView) {
+                ((ManagedView) view.controller).refresh();
+            }
 
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    private static LoadedView parseView(String viewName) throws IOException {
+        FXMLLoader loader = new FXMLLoader(
+                App.class.getResource("/com/hms/view/" + viewName + ".fxml")
+        );
+        Parent root = loader.load();
+        return new LoadedView(root, loader.getController());
+    }
+
+    /**
+     * Parse the common views off the FX thread; nodes may be built on any
+     * thread as long as they are not yet part of a showing scene
+     */
+    private void preloadViews() {
+        for (String viewName : PRELOADED_VIEWS) {
+            if (viewCache.containsKey(viewName)) {
+                continue;
+            }
+            Task<LoadedView> preload = new Task<>() {
+                @Override
+                protected LoadedView call() throws IOException {
+                    return parseView(viewName);
+                }
+            };
+            preload.setOnSucceeded(e -> {
+                // Lost the race against the user opening the view, or the user logged out meanwhile
+                if (disposed || viewCache.putIfAbsent(viewName, preload.getValue()) != null) {
+                    dispose(preload.getValue());
+                }
+            });
+            preload.setOnFailed(e -> System.err.println("Error preloading view " + viewName + ": "
+                    + preload.getException().getMessage()));
+            BackgroundLoader.submit(preload);
+        }
+    }
+
+    /**
+     * Let the outgoing view cancel its background loads
+     */
+    private void hideCurrentView() {
+        if (currentController instanceof ManagedView) {
+            ((ManagedView) currentController).onHidden();
+        }
+        currentController = null;
+    }
+
+    /**
+     * Dispose of every cached view so that none keeps loading data after logout
+     */
+    private void disposeViews() {
+        disposed = true;
+        for (LoadedView view : viewCache.values()) {
+            dispose(view);
+        }
+        viewCache.clear();
+    }
+
+    private static void dispose(LoadedView view) {
+        if (view.controller instanceof ManagedView) {
+            ((ManagedView) view.controller).dispose();
+        }
+    }
 }
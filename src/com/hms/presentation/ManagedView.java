@@ -0,0 +1,26 @@
+package com.hms.presentation;
+
+/**
+ * Controller of a view shown in the main layout's center area.
+ * MainLayoutController caches these views and notifies the controller when
+ * its view is taken off screen or shown again, and disposes of them on logout.
+ */
+public interface ManagedView {
+
+    /**
+     * Called when the view is replaced by another one; cancel background loads here
+     */
+    void onHidden();
+
+    /**
+     * Called whenever the view is shown, including the first time; reload data that
+     * may be stale without re-parsing the FXML
+     */
+    void refresh();
+
+    /**
+     * Called once when the view is discarded; cancel background work and release
+     * anything that would keep the controller reachable
+     */
+    void dispose();
+}
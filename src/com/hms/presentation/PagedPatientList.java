@@ -0,0 +1,341 @@
+package com.hms.presentation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import com.hms.domain.Patient;
+import com.hms.repository.PatientDAO;
+
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+
+/**
+ * Read-only, lazily paged view of the Patient table for a TableView.
+ * Only the row count is known up front. Rows are fetched a page at a time when
+ * the table asks for them, and only the most recently used pages stay in memory,
+ * so heap use does not grow with the size of the registry.
+ * Rows that are not loaded yet read as null and are filled in by a replace
+ * change once their page arrives. Changes to the table are applied by re-reading
+ * only the cached pages and reporting the rows that differ, so rows the table is
+ * not showing are never loaded. Rows stay in the database's name order; the
+ * list cannot be sorted client-side, which would fetch every page, so tables
+ * showing it must not have sortable columns. All methods must be called on the
+ * FX thread.
+ */
+public class PagedPatientList extends ObservableListBase<Patient> {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 20;
+
+    private final PatientDAO patientDAO;
+    private final int pageSize;
+    private final Map<Integer, List<Patient>> pages;
+    private final Set<Integer> pending = new HashSet<>();
+
+    private int size;
+    // Bumped on reload so that pages fetched for an older snapshot are dropped
+    private int generation;
+    // Bumped when cached pages are replaced by re-read ones, dropping fetches started before
+    private int epoch;
+    private boolean reloading;
+    private boolean refreshing;
+    // Changes that arrived during a reload or refresh, applied once it is done
+    private final Set<Integer> queuedIds = new HashSet<>();
+    private boolean refreshQueued;
+    private Supplier<Runnable> queuedAround;
+
+    public PagedPatientList(PatientDAO patientDAO) {
+        this(patientDAO, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * @param patientDAO Source of rows
+     * @param pageSize Rows per fetched page
+     * @param maxPages Pages kept in memory before the least recently used one is dropped
+     */
+    public PagedPatientList(PatientDAO patientDAO, int pageSize, int maxPages) {
+        this.patientDAO = patientDAO;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxPages * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Patient>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    @Override
+    public Patient get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        List<Patient> rows = pages.get(page);
+        if (rows == null) {
+            fetch(page);
+            return null;
+        }
+        // Scrolling past the middle of a page: fetch the next one before it is needed
+        if (offset >= pageSize / 2 && (page + 1) * pageSize < size && !pages.containsKey(page + 1)) {
+            fetch(page + 1);
+        }
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drop every cached page and re-read the row count in the background
+     * @param onLoaded Called on the FX thread once the new count is known; may be null
+     */
+    public void reload(Runnable onLoaded) {
+        int reloadGeneration = ++generation;
+        reloading = true;
+        Task<Integer> count = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                return patientDAO.countPatients();
+            }
+        };
+        count.setOnSucceeded(e -> {
+            if (reloadGeneration != generation) {
+                return;
+            }
+            reloading = false;
+            pages.clear();
+            pending.clear();
+            int oldSize = size;
+            size = count.getValue();
+            beginChange();
+            if (oldSize > 0) {
+                nextRemove(0, Collections.nCopies(oldSize, (Patient) null));
+            }
+            if (size > 0) {
+                nextAdd(0, size);
+            }
+            endChange();
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+            runQueued();
+        });
+        count.setOnFailed(e -> {
+            if (reloadGeneration == generation) {
+                reloading = false;
+            }
+            System.err.println("Error counting patients: " + count.getException().getMessage());
+        });
+        BackgroundLoader.submit(count);
+    }
+
+    /**
+     * Bring the list up to date after patients were inserted, updated or deleted.
+     * The row count and the cached pages are re-read in the background; then one
+     * change reports the new size and replaces only the cached rows that differ,
+     * either because rows shifted or because they are among the changed ones.
+     * @param changedIds IDs of the changed patients
+     * @param around Called right before the change is published; the action it returns runs right after
+     */
+    public void applyChanges(Set<Integer> changedIds, Supplier<Runnable> around) {
+        queuedIds.addAll(changedIds);
+        refreshQueued = true;
+        queuedAround = around;
+        if (!reloading && !refreshing) {
+            runQueued();
+        }
+    }
+
+    /**
+     * @param patientId Patient ID
+     * @return Index of the patient if its row is cached, otherwise -1; never fetches
+     */
+    public int indexOfCached(int patientId) {
+        for (Map.Entry<Integer, List<Patient>> page : pages.entrySet()) {
+            List<Patient> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getPatientId() == patientId) {
+                    return page.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void runQueued() {
+        if (!refreshQueued) {
+            return;
+        }
+        Set<Integer> changedIds = new HashSet<>(queuedIds);
+        Supplier<Runnable> around = queuedAround;
+        queuedIds.clear();
+        refreshQueued = false;
+        queuedAround = null;
+        refresh(changedIds, around);
+    }
+
+    private void refresh(Set<Integer> changedIds, Supplier<Runnable> around) {
+        refreshing = true;
+        int refreshGeneration = generation;
+        // Pages in least recently used order, so that the re-read pages keep their places
+        List<Integer> cached = new ArrayList<>(pages.keySet());
+
+        Task<Snapshot> load = new Task<>() {
+            @Override
+            protected Snapshot call() throws Exception {
+                Snapshot fresh = new Snapshot(patientDAO.countPatients());
+                for (int page : new TreeSet<>(cached)) {
+                    if (page * pageSize >= fresh.size) {
+                        continue;
+                    }
+                    // Runs of adjacent pages seek from the previous page's last key
+                    List<Patient> previous = fresh.pages.get(page - 1);
+                    Patient after = previous != null && previous.size() == pageSize
+                            ? previous.get(pageSize - 1) : null;
+                    fresh.pages.put(page, after != null
+                            ? patientDAO.getPatientsPage(after, pageSize)
+                            : patientDAO.getPatientsAt(page * pageSize, pageSize));
+                }
+                return fresh;
+            }
+        };
+        load.setOnSucceeded(e -> {
+            refreshing = false;
+            if (refreshGeneration != generation) {
+                // A reload replaced everything in the meantime
+                runQueued();
+                return;
+            }
+            publishRefresh(cached, load.getValue(), changedIds, around);
+            runQueued();
+        });
+        load.setOnFailed(e -> {
+            refreshing = false;
+            System.err.println("Error refreshing patients: " + load.getException().getMessage());
+            runQueued();
+        });
+        BackgroundLoader.submit(load);
+    }
+
+    private void publishRefresh(List<Integer> cached, Snapshot fresh,
+                                Set<Integer> changedIds, Supplier<Runnable> around) {
+        Runnable after = around == null ? null : around.get();
+        int oldSize = size;
+        int newSize = fresh.size;
+        Map<Integer, List<Patient>> old = new LinkedHashMap<>(pages);
+
+        pages.clear();
+        for (int page : cached) {
+            List<Patient> rows = fresh.pages.get(page);
+            if (rows != null) {
+                pages.put(page, rows);
+            }
+        }
+        pending.clear();
+        epoch++;
+        size = newSize;
+
+        beginChange();
+        int common = Math.min(oldSize, newSize);
+        for (Map.Entry<Integer, List<Patient>> page : pages.entrySet()) {
+            List<Patient> rows = page.getValue();
+            List<Patient> previous = old.get(page.getKey());
+            int from = page.getKey() * pageSize;
+            for (int i = 0; i < rows.size() && from + i < common; i++) {
+                Patient before = previous != null && i < previous.size() ? previous.get(i) : null;
+                Patient now = rows.get(i);
+                if (before == null || before.getPatientId() != now.getPatientId() || changedIds.contains(now.getPatientId())) {
+                    nextReplace(from + i, from + i + 1, Collections.singletonList(before));
+                }
+            }
+        }
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else if (newSize < oldSize) {
+            List<Patient> removed = new ArrayList<>(oldSize - newSize);
+            for (int i = newSize; i < oldSize; i++) {
+                List<Patient> previous = old.get(i / pageSize);
+                removed.add(previous != null && i % pageSize < previous.size() ? previous.get(i % pageSize) : null);
+            }
+            nextRemove(newSize, removed);
+        }
+        endChange();
+
+        if (after != null) {
+            after.run();
+        }
+    }
+
+    /**
+     * Load one page off the FX thread and publish it as a single replace change.
+     * Seeks from the previous page's last key when that page is cached, and falls
+     * back to an index-only offset scan when the table jumped to an arbitrary row.
+     */
+    private void fetch(int page) {
+        if (!pending.add(page)) {
+            return;
+        }
+        int fetchGeneration = generation;
+        int fetchEpoch = epoch;
+        List<Patient> previous = pages.get(page - 1);
+        Patient after = previous != null && previous.size() == pageSize ? previous.get(pageSize - 1) : null;
+
+        Task<List<Patient>> load = new Task<>() {
+            @Override
+            protected List<Patient> call() throws Exception {
+                return after != null
+                        ? patientDAO.getPatientsPage(after, pageSize)
+                        : patientDAO.getPatientsAt(page * pageSize, pageSize);
+            }
+        };
+        load.setOnSucceeded(e -> {
+            if (fetchGeneration != generation || fetchEpoch != epoch) {
+                return;
+            }
+            pending.remove(page);
+            List<Patient> rows = load.getValue();
+            pages.put(page, rows);
+
+            int from = page * pageSize;
+            int to = Math.min(from + rows.size(), size);
+            if (from < to) {
+                beginChange();
+                nextReplace(from, to, Collections.nCopies(to - from, (Patient) null));
+                endChange();
+            }
+        });
+        load.setOnFailed(e -> {
+            pending.remove(page);
+            System.err.println("Error loading patient page " + page + ": " + load.getException().getMessage());
+        });
+        BackgroundLoader.submit(load);
+    }
+
+    /**
+     * Row count and cached pages re-read by a refresh
+     */
+    private static final class Snapshot {
+        private final int size;
+        private final Map<Integer, List<Patient>> pages = new TreeMap<>();
+
+        Snapshot(int size) {
+            this.size = size;
+        }
+    }
+}
@@ -1,32 +1,169 @@
 package com.hms.presentation;
 
-import com.hms.service.DataService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
 import com.hms.domain.Patient;
+import com.hms.event.ChangeEvent;
+import com.hms.repository.PatientDAO;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.TextField;
 
-public class PatientController {
+public class PatientController implements ManagedView {
+    private static final int SEARCH_LIMIT = 50;
 
+    @FXML private TextField searchField;
     @FXML private TableView<Patient> patientsTable;
     @FXML private TableColumn<Patient, String> nameColumn;
     @FXML private TableColumn<Patient, Integer> ageColumn;
-    @FXML private TableColumn<Patient, String> genderColumn;
+    @FXML private TableColumn<Patient, Patient.Gender> genderColumn;
     @FXML private TableColumn<Patient, String> contactColumn;
-    @FXML private TableColumn<Patient, String> registrationColumn;
+    @FXML private TableColumn<Patient, LocalDateTime> registrationColumn;
+
+    // Rows are fetched page by page as the table scrolls
+    private PagedPatientList patients;
+    private final PatientDAO patientDAO = new PatientDAO();
+    // Each keystroke cancels the search still running for the previous one
+    private final BackgroundLoader searchLoader = new BackgroundLoader();
+    // Re-runs the shown search when patients change, without cancelling a search being typed
+    private final BackgroundLoader resultsLoader = new BackgroundLoader();
+    private final LiveUpdates live = new LiveUpdates(ChangeEvent.Entity.PATIENT, this::applyChanges);
+    // Set when a search was cancelled before its results were shown
+    private boolean stale;
 
     @FXML
     public void initialize() {
-        // Patient.java has getFullName(), getAge(), getGender(), getPhone(), getRegistrationDate()
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
-        ageColumn.setCellValueFactory(new PropertyValueFactory<>("age"));
-        genderColumn.setCellValueFactory(new PropertyValueFactory<>("gender"));
-        contactColumn.setCellValueFactory(new PropertyValueFactory<>("phone"));
-        registrationColumn.setCellValueFactory(new PropertyValueFactory<>("registrationDate"));
-
-        patientsTable.setItems(FXCollections.observableArrayList(DataService.getInstance().getPatients()));
+        nameColumn.setCellValueFactory(Cells.value(Patient::getFullName));
+        ageColumn.setCellValueFactory(Cells.value(Patient::getAge));
+        genderColumn.setCellValueFactory(Cells.value(Patient::getGender));
+        contactColumn.setCellValueFactory(Cells.value(Patient::getPhone));
+        registrationColumn.setCellValueFactory(Cells.value(Patient::getRegistrationDate));
+
+        patients = new PagedPatientList(patientDAO);
+        patientsTable.setItems(patients);
+        searchField.textProperty().addListener((obs, oldText, newText) -> search());
+        loadPatients();
+    }
+
+    private void search() {
+        String query = searchField.getText();
+        stale = false;
+        resultsLoader.cancel();
+        if (query == null || query.isBlank()) {
+            searchLoader.cancel();
+            patientsTable.setPlaceholder(new Label("No patients"));
+            patientsTable.setItems(patients);
+            return;
+        }
+        searchLoader.load(() -> FXCollections.observableArrayList(patientDAO.searchPatients(query, SEARCH_LIMIT)),
+                results -> {
+                    patientsTable.setPlaceholder(new Label("No matching patients"));
+                    patientsTable.setItems(results);
+                });
+    }
+
+    private void loadPatients() {
+        patientsTable.setPlaceholder(new Label("Loading patients..."));
+        patients.reload(() -> patientsTable.setPlaceholder(new Label("No patients")));
+    }
+
+    /**
+     * Update the shown rows in place: the paged list re-reads only its cached pages,
+     * and shown search results are diffed against the search run again
+     */
+    private void applyChanges(LiveUpdates.Changes changes) {
+        if (changes.isResync()) {
+            loadPatients();
+            search();
+            return;
+        }
+        Set<Integer> changedIds = changes.getOperations().keySet();
+        patients.applyChanges(Set.copyOf(changedIds), () -> {
+            if (patientsTable.getItems() != patients) {
+                return null;
+            }
+            return TableAnchor.capture(patientsTable, Patient::getPatientId, patients::indexOfCached)::restore;
+        });
+
+        ObservableList<Patient> results = patientsTable.getItems();
+        String query = searchField.getText();
+        // A search still running will show fresh results anyway
+        if (results == patients || searchLoader.isLoading() || query == null || query.isBlank()) {
+            return;
+        }
+        Set<Integer> updatedIds = Set.copyOf(changedIds);
+        resultsLoader.load(() -> patientDAO.searchPatients(query, SEARCH_LIMIT), fresh -> {
+            if (patientsTable.getItems() != results) {
+                return;
+            }
+            TableAnchor<Patient> anchor = TableAnchor.capture(patientsTable, Patient::getPatientId,
+                    id -> indexOf(results, id));
+            merge(results, fresh, updatedIds);
+            anchor.restore();
+        });
+    }
+
+    /**
+     * Make rows equal to fresh, replacing only the rows that moved or changed
+     */
+    private static void merge(ObservableList<Patient> rows, List<Patient> fresh, Set<Integer> changedIds) {
+        int common = Math.min(rows.size(), fresh.size());
+        for (int i = 0; i < common; i++) {
+            Patient now = fresh.get(i);
+            if (rows.get(i).getPatientId() != now.getPatientId() || changedIds.contains(now.getPatientId())) {
+                rows.set(i, now);
+            }
+        }
+        if (fresh.size() > common) {
+            rows.addAll(fresh.subList(common, fresh.size()));
+        } else if (rows.size() > common) {
+            rows.remove(common, rows.size());
+        }
+    }
+
+    private static int indexOf(List<Patient> rows, int patientId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getPatientId() == patientId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void refresh() {
+        // Rows were kept current while shown; reload only if changes were missed while hidden
+        boolean missed = live.show();
+        if (missed) {
+            loadPatients();
+        }
+        if (missed || stale) {
+            search();
+        }
+    }
+
+    @Override
+    public void onHidden() {
+        live.hide();
+        // Page fetches are small and their results stay valid; only a pending search is dropped
+        if (searchLoader.isLoading() || resultsLoader.isLoading()) {
+            searchLoader.cancel();
+            resultsLoader.cancel();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        live.hide();
+        searchLoader.cancel();
+        resultsLoader.cancel();
     }
 }
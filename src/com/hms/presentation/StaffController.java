@@ -2,14 +2,19 @@ package com.hms.presentation;
 
 import com.hms.service.DataService;
 import com.hms.domain.Doctor;
+import com.hms.event.ChangeEvent;
+
+import java.util.List;
+import java.util.Map;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 
-public class StaffController {
+public class StaffController implements ManagedView {
 
     @FXML private TableView<Doctor> staffTable;
     @FXML private TableColumn<Doctor, String> nameColumn;
@@ -17,17 +22,97 @@ public class StaffController {
     @FXML private TableColumn<Doctor, String> contactColumn;
     @FXML private TableColumn<Doctor, String> availabilityColumn;
 
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private final LiveUpdates live = new LiveUpdates(ChangeEvent.Entity.DOCTOR, this::applyChanges);
+    // Set when a load was cancelled before its rows were shown
+    private boolean stale;
+
     @FXML
     public void initialize() {
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        specialtyColumn.setCellValueFactory(new PropertyValueFactory<>("specialty"));
-        contactColumn.setCellValueFactory(new PropertyValueFactory<>("contact"));
-        availabilityColumn.setCellValueFactory(new PropertyValueFactory<>("availability"));
-
-        staffTable.setItems(
-                FXCollections.observableArrayList(
-                        DataService.getInstance().getDoctors()
-                )
-        );
+        nameColumn.setCellValueFactory(Cells.value(Doctor::getName));
+        specialtyColumn.setCellValueFactory(Cells.value(Doctor::getSpecialty));
+        contactColumn.setCellValueFactory(Cells.value(Doctor::getContact));
+        availabilityColumn.setCellValueFactory(Cells.value(Doctor::getAvailability));
+
+        loadDoctors();
+    }
+
+    private void loadDoctors() {
+        staffTable.setPlaceholder(new Label("Loading staff..."));
+        stale = false;
+        // Changes made while the rows load are applied on top of them afterwards
+        live.hold();
+        loader.load(() -> FXCollections.observableArrayList(DataService.getInstance().getDoctors()),
+                doctors -> {
+                    staffTable.setPlaceholder(new Label("No staff"));
+                    staffTable.setItems(doctors);
+                    live.release();
+                },
+                error -> {
+                    System.err.println("Error loading staff: " + error.getMessage());
+                    error.printStackTrace();
+                    live.release();
+                });
+    }
+
+    /**
+     * Insert, replace or remove only the rows that changed, keeping the selection and scroll position
+     */
+    private void applyChanges(LiveUpdates.Changes changes) {
+        if (changes.isResync()) {
+            loadDoctors();
+            return;
+        }
+        ObservableList<Doctor> rows = staffTable.getItems();
+        TableAnchor<Doctor> anchor = TableAnchor.capture(staffTable, Doctor::getId, id -> indexOf(rows, id));
+        for (Map.Entry<Integer, ChangeEvent.Operation> change : changes.getOperations().entrySet()) {
+            Doctor doctor = change.getValue() == ChangeEvent.Operation.DELETE
+                    ? null : DataService.getInstance().getDoctorById(change.getKey());
+            int index = indexOf(rows, change.getKey());
+            if (doctor == null) {
+                if (index >= 0) {
+                    rows.remove(index);
+                }
+            } else if (index >= 0) {
+                rows.set(index, doctor);
+            } else {
+                // Doctors are listed in the order they were added
+                rows.add(doctor);
+            }
+        }
+        anchor.restore();
+    }
+
+    private static int indexOf(List<Doctor> rows, int doctorId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId() == doctorId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void refresh() {
+        // Rows were kept current while shown; reload only if changes were missed while hidden
+        boolean missed = live.show();
+        if (missed || stale) {
+            loadDoctors();
+        }
+    }
+
+    @Override
+    public void onHidden() {
+        live.hide();
+        if (loader.isLoading()) {
+            loader.cancel();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        live.hide();
+        loader.cancel();
     }
 }
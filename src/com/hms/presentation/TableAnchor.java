@@ -0,0 +1,74 @@
+package com.hms.presentation;
+
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+/**
+ * Remembers which row is selected and which row is at the top of a table, by
+ * ID, so that both can be put back after rows were inserted or removed above
+ * them. Rows are looked up through the view's own index function so that a
+ * lazily paged list is never forced to load rows just to find one.
+ */
+final class TableAnchor<T> {
+    private final TableView<T> table;
+    private final IntUnaryOperator indexOf;
+    private final int selectedId;
+    private final int topIndex;
+    private final int topId;
+
+    private TableAnchor(TableView<T> table, IntUnaryOperator indexOf, int selectedId, int topIndex, int topId) {
+        this.table = table;
+        this.indexOf = indexOf;
+        this.selectedId = selectedId;
+        this.topIndex = topIndex;
+        this.topId = topId;
+    }
+
+    /**
+     * Record the selected row and the first visible row of a table
+     * @param table Table about to change
+     * @param idOf ID of a row
+     * @param indexOf Current index of the row with an ID, or -1 if it is not (or not yet) in the list
+     */
+    static <T> TableAnchor<T> capture(TableView<T> table, ToIntFunction<T> idOf, IntUnaryOperator indexOf) {
+        T selected = table.getSelectionModel().getSelectedItem();
+        int topIndex = -1;
+        int topId = -1;
+        if (table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+            IndexedCell<?> first = flow.getFirstVisibleCell();
+            if (first != null && first.getIndex() >= 0 && first.getIndex() < table.getItems().size()) {
+                T top = table.getItems().get(first.getIndex());
+                if (top != null) {
+                    topIndex = first.getIndex();
+                    topId = idOf.applyAsInt(top);
+                }
+            }
+        }
+        return new TableAnchor<>(table, indexOf, selected == null ? -1 : idOf.applyAsInt(selected), topIndex, topId);
+    }
+
+    /**
+     * Select the recorded row again and scroll it back into place if it moved.
+     * A selected row that was removed leaves the table without a selection.
+     */
+    void restore() {
+        if (selectedId >= 0) {
+            int index = indexOf.applyAsInt(selectedId);
+            if (index < 0) {
+                table.getSelectionModel().clearSelection();
+            } else if (table.getSelectionModel().getSelectedIndex() != index) {
+                table.getSelectionModel().clearAndSelect(index);
+            }
+        }
+        if (topId >= 0) {
+            int index = indexOf.applyAsInt(topId);
+            if (index >= 0 && index != topIndex) {
+                table.scrollTo(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.hms.repository;
+
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+import com.hms.domain.Appointment;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for Appointment operations
+ * Range queries compare the fixed-width start_time text and are served by
+ * idx_appointment_start and idx_appointment_doctor_start.
+ */
+public class AppointmentDAO {
+    // Patient and doctor names are joined in for display
+    private static final String SELECT_SQL = "SELECT a.*, " +
+            "p.first_name || ' ' || p.last_name AS patient_name, d.name AS doctor_name " +
+            "FROM Appointment a " +
+            "LEFT JOIN Patient p ON p.patient_id = a.patient_id " +
+            "LEFT JOIN Doctor d ON d.doctor_id = a.doctor_id ";
+
+	private DBHandler dbHandler;
+
+	public AppointmentDAO() {
+		this.dbHandler = DBHandler.getInstance();
+	}
+
+    /**
+     * Insert a new appointment into the database
+     * @param appointment Appointment object to insert
+     * @return Generated appointment ID
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public int insertAppointment(Appointment appointment) throws DatabaseException, ValidationException {
+        validateAppointment(appointment);
+
+        String sql = "INSERT INTO Appointment (patient_id, doctor_id, start_time, duration_minutes, status, notes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindAppointment(pstmt, appointment);
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int appointmentId = generatedKeys.getInt(1);
+                    appointment.setId(appointmentId);
+                    if (appointment.isActive()) {
+                        EntityCounters.getInstance().activeAppointmentsAdded(1);
+                    }
+                    return appointmentId;
+                } else {
+                    throw new DatabaseException("Inserting appointment failed, no ID obtained.");
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error inserting appointment: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get appointment by ID
+     * @param appointmentId Appointment ID
+     * @return Appointment object or null if not found
+     * @throws DatabaseException if database operation fails
+     */
+    public Appointment getAppointmentById(int appointmentId) throws DatabaseException {
+        List<Appointment> found = query(SELECT_SQL + "WHERE a.appointment_id = ?", appointmentId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Get all appointments ordered by start time
+     * @return List of all appointments
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Appointment> getAllAppointments() throws DatabaseException {
+        return query(SELECT_SQL + "ORDER BY a.start_time, a.appointment_id");
+    }
+
+    /**
+     * Get the appointments starting in [from, to)
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return Appointments ordered by start time
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Appointment> getAppointmentsBetween(LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        return query(SELECT_SQL + "WHERE a.start_time >= ? AND a.start_time < ? ORDER BY a.start_time",
+                DateTimeColumns.format(from), DateTimeColumns.format(to));
+    }
+
+    /**
+     * Get the appointments of one day
+     * @param day Day
+     * @return Appointments ordered by start time
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Appointment> getAppointmentsOn(LocalDate day) throws DatabaseException {
+        return getAppointmentsBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Get one doctor's appointments starting in [from, to)
+     * @param doctorId Doctor ID
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return Appointments ordered by start time
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Appointment> getAppointmentsForDoctor(int doctorId, LocalDateTime from, LocalDateTime to)
+            throws DatabaseException {
+        return query(SELECT_SQL + "WHERE a.doctor_id = ? AND a.start_time >= ? AND a.start_time < ? " +
+                "ORDER BY a.start_time",
+                doctorId, DateTimeColumns.format(from), DateTimeColumns.format(to));
+    }
+
+    /**
+     * Count appointments that are still scheduled
+     * @return Number of SCHEDULED appointments
+     * @throws DatabaseException if database operation fails
+     */
+    public int countActiveAppointments() throws DatabaseException {
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM Appointment WHERE status = 'SCHEDULED'");
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error counting appointments: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Update appointment information
+     * @param appointment Appointment object with updated information
+     * @return true if update successful
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public boolean updateAppointment(Appointment appointment) throws DatabaseException, ValidationException {
+        if (appointment.getId() == 0) {
+            throw new ValidationException("Appointment ID is required for update operation.");
+        }
+        validateAppointment(appointment);
+
+        String sql = "UPDATE Appointment SET patient_id = ?, doctor_id = ?, start_time = ?, " +
+                     "duration_minutes = ?, status = ?, notes = ? WHERE appointment_id = ?";
+
+        try (Connection conn = dbHandler.getConnection()) {
+            // Writes are serialized on the writer connection, so the old status cannot change in between
+            Appointment.Status oldStatus = findStatus(conn, appointment.getId());
+            if (oldStatus == null) {
+                return false;
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindAppointment(pstmt, appointment);
+                pstmt.setInt(7, appointment.getId());
+                boolean updated = pstmt.executeUpdate() > 0;
+
+                boolean wasActive = oldStatus == Appointment.Status.SCHEDULED;
+                if (updated && wasActive != appointment.isActive()) {
+                    if (appointment.isActive()) {
+                        EntityCounters.getInstance().activeAppointmentsAdded(1);
+                    } else {
+                        EntityCounters.getInstance().activeAppointmentsRemoved(1);
+                    }
+                }
+                return updated;
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating appointment: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete appointment by ID
+     * @param appointmentId Appointment ID
+     * @return true if deletion successful
+     * @throws DatabaseException if database operation fails
+     */
+    public boolean deleteAppointment(int appointmentId) throws DatabaseException {
+        String sql = "DELETE FROM Appointment WHERE appointment_id = ?";
+
+        try (Connection conn = dbHandler.getConnection()) {
+            Appointment.Status oldStatus = findStatus(conn, appointmentId);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, appointmentId);
+                boolean deleted = pstmt.executeUpdate() > 0;
+                if (deleted && oldStatus == Appointment.Status.SCHEDULED) {
+                    EntityCounters.getInstance().activeAppointmentsRemoved(1);
+                }
+                return deleted;
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting appointment: " + e.getMessage(), e);
+        }
+    }
+
+    private Appointment.Status findStatus(Connection conn, int appointmentId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT status FROM Appointment WHERE appointment_id = ?")) {
+            pstmt.setInt(1, appointmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Appointment.Status.valueOf(rs.getString(1)) : null;
+            }
+        }
+    }
+
+    private List<Appointment> query(String sql, Object... parameters) throws DatabaseException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapResultSetToAppointment(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving appointments: " + e.getMessage(), e);
+        }
+
+        return appointments;
+    }
+
+    private void bindAppointment(PreparedStatement pstmt, Appointment appointment) throws SQLException {
+        pstmt.setInt(1, appointment.getPatientId());
+        pstmt.setInt(2, appointment.getDoctorId());
+        pstmt.setString(3, DateTimeColumns.format(appointment.getScheduledAt()));
+        pstmt.setInt(4, appointment.getDurationMinutes());
+        pstmt.setString(5, appointment.getStatus().name());
+        pstmt.setString(6, appointment.getNotes());
+    }
+
+    /**
+     * Map ResultSet to Appointment object
+     */
+    private Appointment mapResultSetToAppointment(ResultSet rs) throws SQLException {
+        Appointment appointment = new Appointment(
+                rs.getInt("appointment_id"),
+                rs.getInt("patient_id"),
+                rs.getInt("doctor_id"),
+                rs.getString("patient_name"),
+                rs.getString("doctor_name"),
+                DateTimeColumns.parse(rs.getString("start_time")),
+                Appointment.Status.valueOf(rs.getString("status")),
+                rs.getString("notes"));
+        appointment.setDurationMinutes(rs.getInt("duration_minutes"));
+        return appointment;
+    }
+
+    /**
+     * Validate appointment data
+     * @param appointment Appointment to validate
+     * @throws ValidationException if validation fails
+     */
+    private void validateAppointment(Appointment appointment) throws ValidationException {
+        if (appointment.getPatientId() <= 0) {
+            throw new ValidationException("Patient is required.");
+        }
+        if (appointment.getDoctorId() <= 0) {
+            throw new ValidationException("Doctor is required.");
+        }
+        if (appointment.getScheduledAt() == null) {
+            throw new ValidationException("Appointment date and time are required.");
+        }
+        if (appointment.getDurationMinutes() <= 0) {
+            throw new ValidationException("Appointment duration must be positive.");
+        }
+        if (appointment.getStatus() == null) {
+            throw new ValidationException("Appointment status is required.");
+        }
+    }
+}
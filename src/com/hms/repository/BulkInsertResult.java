@@ -0,0 +1,82 @@
+package com.hms.repository;
+
+import com.hms.domain.Patient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert
+ * Holds the generated IDs of the inserted rows and the rows that were rejected
+ */
+public class BulkInsertResult {
+    private final List<Integer> insertedIds = new ArrayList<>();
+    private final List<RowFailure> failures = new ArrayList<>();
+
+    /**
+     * A rejected input row
+     */
+    public static class RowFailure {
+        private final int rowIndex;
+        private final Patient patient;
+        private final String message;
+
+        public RowFailure(int rowIndex, Patient patient, String message) {
+            this.rowIndex = rowIndex;
+            this.patient = patient;
+            this.message = message;
+        }
+
+        /**
+         * @return zero-based position of the row in the input
+         */
+        public int getRowIndex() {
+            return rowIndex;
+        }
+
+        public Patient getPatient() {
+            return patient;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowFailure [rowIndex=" + rowIndex + ", message=" + message + "]";
+        }
+    }
+
+    void addInserted(int patientId) {
+        insertedIds.add(patientId);
+    }
+
+    void addFailure(int rowIndex, Patient patient, String message) {
+        failures.add(new RowFailure(rowIndex, patient, message));
+    }
+
+    /**
+     * @return generated patient IDs, in input order
+     */
+    public List<Integer> getInsertedIds() {
+        return Collections.unmodifiableList(insertedIds);
+    }
+
+    public List<RowFailure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public int getInsertedCount() {
+        return insertedIds.size();
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkInsertResult [inserted=" + getInsertedCount() + ", failed=" + getFailedCount() + "]";
+    }
+}
@@ -0,0 +1,320 @@
+package com.hms.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of SQLite connections.
+ * Borrowed connections are handed out as proxies: calling close() on them
+ * returns the physical connection to the pool instead of closing it, so DAO
+ * code can keep using try-with-resources.
+ * Each physical connection keeps its own LRU cache of prepared statements, so
+ * prepareStatement(sql) on a borrowed connection skips parsing for SQL text
+ * that connection has seen before.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final List<String> initStatements;
+    private final int statementCacheSize;
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<Lease, Boolean> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean shutdown;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong leaksReported = new AtomicLong();
+
+    /**
+     * Create a pool
+     * @param url JDBC URL of the database
+     * @param maxSize maximum number of physical connections
+     * @param borrowTimeoutMillis how long getConnection waits for a free connection
+     * @param leakThresholdMillis borrow duration after which a lease is reported as leaked (0 disables)
+     * @param initStatements statements run once on every new physical connection
+     * @param statementCacheSize prepared statements cached per connection (0 disables caching)
+     */
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, long leakThresholdMillis,
+                          List<String> initStatements, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.initStatements = List.copyOf(initStatements);
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        if (leakThresholdMillis > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "hms-db-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, leakThresholdMillis / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    /**
+     * Borrow a connection from the pool
+     * @return Connection whose close() returns it to the pool
+     * @throws SQLException if the pool is exhausted or a connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection physical = takeValidConnection();
+            Lease lease = new Lease(physical);
+            leases.put(lease, Boolean.TRUE);
+            borrowed.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and refuse further borrows.
+     * Connections still on loan are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            conn.close();
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getIdleCount() { return idle.size(); }
+    public int getActiveCount() { return leases.size(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getBorrowedCount() { return borrowed.get(); }
+    public long getReturnedCount() { return returned.get(); }
+    public long getDiscardedCount() { return discarded.get(); }
+    public long getLeaksReported() { return leaksReported.get(); }
+    public long getStatementCacheHits() { return statementCounters.hits.get(); }
+    public long getStatementCacheMisses() { return statementCounters.misses.get(); }
+    public long getStatementCacheEvictions() { return statementCounters.evictions.get(); }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool [maxSize=" + maxSize + ", active=" + getActiveCount() + ", idle=" + getIdleCount()
+                + ", created=" + getCreatedCount() + ", borrowed=" + getBorrowedCount()
+                + ", returned=" + getReturnedCount() + ", discarded=" + getDiscardedCount()
+                + ", leaksReported=" + getLeaksReported()
+                + ", statementCacheHits=" + getStatementCacheHits()
+                + ", statementCacheMisses=" + getStatementCacheMisses() + "]";
+    }
+
+    /**
+     * Take the most recently used idle connection that is still valid,
+     * or open a new one if none is available.
+     */
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            if (isValid(conn.connection)) {
+                return conn;
+            }
+            discarded.incrementAndGet();
+            conn.close();
+        }
+        return openConnection();
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : initStatements) {
+                stmt.execute(sql);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        created.incrementAndGet();
+        return new PooledConnection(conn);
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Put a connection back after its borrower closed it.
+     * Open transactions are rolled back so the next borrower starts clean.
+     */
+    private void release(Lease lease) {
+        leases.remove(lease);
+        PooledConnection conn = lease.physical;
+        boolean reusable = !shutdown;
+        try {
+            if (!conn.connection.getAutoCommit()) {
+                conn.connection.rollback();
+                conn.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            idle.offerFirst(conn);
+        } else {
+            discarded.incrementAndGet();
+            conn.close();
+        }
+        returned.incrementAndGet();
+        permits.release();
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases.keySet()) {
+            if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.reported = true;
+                leaksReported.incrementAndGet();
+                System.err.println("Possible database connection leak: connection borrowed "
+                        + (now - lease.borrowedAt) + " ms ago by thread '" + lease.ownerThread
+                        + "' has not been returned.");
+                lease.origin.printStackTrace();
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection together with its prepared statement cache
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statements = new StatementCache(connection, statementCacheSize, statementCounters);
+        }
+
+        private void close() {
+            statements.closeAll();
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * One borrow of a physical connection, exposed to callers as a Connection proxy
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection physical;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String ownerThread = Thread.currentThread().getName();
+        private final Throwable origin;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean reported;
+
+        private Lease(PooledConnection physical) {
+            this.physical = physical;
+            this.origin = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.connection + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            if (method.getName().equals("prepareStatement") && args != null
+                    && args.length <= 2 && (args.length == 1 || method.getParameterTypes()[1] == int.class)) {
+                int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return physical.statements.prepare((String) args[0], keys);
+            }
+            try {
+                return method.invoke(physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
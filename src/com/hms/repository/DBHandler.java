@@ -1,21 +1,73 @@
 package com.hms.repository;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
  * Database Handler Class
- * Manages SQLite database connection and initialization
+ * Manages the SQLite connection pools and database initialization.
+ * Pool settings can be overridden with the system properties
+ * hms.db.poolSize, hms.db.borrowTimeoutMs, hms.db.leakThresholdMs,
+ * hms.db.statementCacheSize and hms.db.storageMode (WAL or ROLLBACK_JOURNAL).
  */
 public class DBHandler {
 	private static final String DB_URL = "jdbc:sqlite:hms_database.db";
+    private static final int POOL_SIZE = Integer.getInteger("hms.db.poolSize", 4);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("hms.db.borrowTimeoutMs", 30_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("hms.db.leakThresholdMs", 60_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("hms.db.statementCacheSize", 64);
     private static DBHandler instance;
-    private Connection connection;
+    private final StorageMode storageMode;
+    private final ConnectionPool writerPool;
+    private final ConnectionPool readerPool;
+
+    /**
+     * How the SQLite file is journaled and how connections are split
+     */
+    public enum StorageMode {
+        /** Classic rollback journal; read-only reader pool plus a single writer, readers and the writer block each other */
+        ROLLBACK_JOURNAL,
+        /** Write-ahead log; read-only reader pool plus a single serialized writer connection */
+        WAL
+    }
 
 	private  DBHandler() {
+		storageMode = StorageMode.valueOf(System.getProperty("hms.db.storageMode", StorageMode.WAL.name()));
+
+		if (storageMode == StorageMode.WAL) {
+			List<String> common = List.of(
+					"PRAGMA foreign_keys = ON",
+					"PRAGMA busy_timeout = 5000",
+					"PRAGMA journal_mode = WAL",
+					"PRAGMA synchronous = NORMAL",
+					"PRAGMA cache_size = -16384",
+					"PRAGMA mmap_size = 268435456",
+					"PRAGMA temp_store = MEMORY");
+			List<String> reader = new ArrayList<>(common);
+			reader.add("PRAGMA query_only = ON");
+
+			writerPool = new ConnectionPool(DB_URL, 1, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS, common,
+					STATEMENT_CACHE_SIZE);
+			readerPool = new ConnectionPool(DB_URL, POOL_SIZE, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS, reader,
+					STATEMENT_CACHE_SIZE);
+		} else {
+			List<String> common = List.of(
+					"PRAGMA foreign_keys = ON",
+					"PRAGMA busy_timeout = 5000",
+					"PRAGMA journal_mode = DELETE");
+			List<String> reader = new ArrayList<>(common);
+			reader.add("PRAGMA query_only = ON");
+
+			// One writer here too: change events are published while the writer is held,
+			// so a second writer could publish its events ahead of an earlier commit
+			writerPool = new ConnectionPool(DB_URL, 1, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS, common,
+					STATEMENT_CACHE_SIZE);
+			readerPool = new ConnectionPool(DB_URL, POOL_SIZE, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS, reader,
+					STATEMENT_CACHE_SIZE);
+		}
 		initializeDatabase();
 	}
 
@@ -31,108 +83,77 @@ public class DBHandler {
     }
 
     /**
-     * Get database connection
+     * Borrow a connection that may write to the database.
+     * There is a single writer connection in both storage modes, so writes are serialized.
+     * Closing the returned connection hands it back to the pool.
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(DB_URL);
-                // Enable foreign keys
-                connection.createStatement().execute("PRAGMA foreign_keys = ON");
-            } catch (SQLException e) {
-                throw new SQLException("Failed to establish database connection: " + e.getMessage(), e);
-            }
-        }
-        return connection;
+        return borrow(writerPool);
     }
 
     /**
-     * Close database connection
+     * Borrow a read-only connection.
+     * In WAL mode readers see the last committed snapshot and never block the writer.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public Connection getReadConnection() throws SQLException {
+        return borrow(readerPool);
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Get the writer connection pool, e.g. to inspect borrow/return accounting
+     * @return ConnectionPool used for writes
+     */
+    public ConnectionPool getPool() {
+        return writerPool;
+    }
+
+    /**
+     * Get the read-only connection pool
+     * @return ConnectionPool used for reads
+     */
+    public ConnectionPool getReaderPool() {
+        return readerPool;
+    }
+
+    /**
+     * Close all pooled database connections
      */
     public void closeConnection() {
+        readerPool.shutdown();
+        writerPool.shutdown();
+    }
+
+    private Connection borrow(ConnectionPool pool) throws SQLException {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
+            return pool.getConnection();
         } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            throw new SQLException("Failed to establish database connection: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Initialize database and create tables if they don't exist
+     * Initialize database: apply pending schema migrations and check the hot query plans
      */
-
 	private void initializeDatabase() {
-		try (Connection conn = DriverManager.getConnection(DB_URL);
-	             Statement stmt = conn.createStatement()) {
-	            
-	            // Enable foreign keys
-	            stmt.execute("PRAGMA foreign_keys = ON");
-	            
-	            // Create tables directly (more reliable than reading from file)
-	            createTablesDirectly(stmt);
-	            
-	        } catch (SQLException e) {
-	            System.err.println("Error initializing database: " + e.getMessage());
-	            e.printStackTrace();
-	        }
-	    }
-
-	    /**
-	     * Create tables directly if schema file is not available
-	     */
-	    private void createTablesDirectly(Statement stmt) throws SQLException {
-	        // Create User table
-	        stmt.execute("CREATE TABLE IF NOT EXISTS User (" +
-	                "user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-	                "username VARCHAR(50) NOT NULL UNIQUE, " +
-	                "password VARCHAR(255) NOT NULL, " +
-	                "full_name VARCHAR(100) NOT NULL, " +
-	                "role VARCHAR(20) NOT NULL CHECK(role IN ('ADMIN', 'DOCTOR', 'NURSE')), " +
-	                "email VARCHAR(100), " +
-	                "phone VARCHAR(20), " +
-	                "created_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
-
-	        // Create Patient table
-	        stmt.execute("CREATE TABLE IF NOT EXISTS Patient (" +
-	                "patient_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-	                "first_name VARCHAR(50) NOT NULL, " +
-	                "last_name VARCHAR(50) NOT NULL, " +
-	                "date_of_birth DATE NOT NULL, " +
-	                "gender VARCHAR(10) NOT NULL CHECK(gender IN ('MALE', 'FEMALE', 'OTHER')), " +
-	                "phone VARCHAR(20), " +
-	                "email VARCHAR(100), " +
-	                "address TEXT, " +
-	                "emergency_contact VARCHAR(100), " +
-	                "emergency_phone VARCHAR(20), " +
-	                "blood_type VARCHAR(5), " +
-	                "registration_date DATETIME DEFAULT CURRENT_TIMESTAMP, " +
-	                "created_by INTEGER, " +
-	                "FOREIGN KEY (created_by) REFERENCES User(user_id))");
-
-	        // Create Diagnosis table
-	        stmt.execute("CREATE TABLE IF NOT EXISTS Diagnosis (" +
-	                "diagnosis_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-	                "patient_id INTEGER NOT NULL, " +
-	                "doctor_id INTEGER NOT NULL, " +
-	                "diagnosis_date DATETIME DEFAULT CURRENT_TIMESTAMP, " +
-	                "symptoms TEXT, " +
-	                "diagnosis_description TEXT NOT NULL, " +
-	                "prescribed_medication TEXT, " +
-	                "notes TEXT, " +
-	                "status VARCHAR(20) DEFAULT 'ACTIVE' CHECK(status IN ('ACTIVE', 'RESOLVED', 'FOLLOW_UP')), " +
-	                "FOREIGN KEY (patient_id) REFERENCES Patient(patient_id) ON DELETE CASCADE, " +
-	                "FOREIGN KEY (doctor_id) REFERENCES User(user_id))");
-
-	        // Insert default admin user
-	        stmt.execute("INSERT OR IGNORE INTO User (username, password, full_name, role, email) " +
-	                "VALUES ('admin', 'admin123', 'System Administrator', 'ADMIN', 'admin@hms.com')");
-
-	        System.out.println("Tables created successfully.");
-	    }
-		
-	}
+		SchemaMigrator migrator = new SchemaMigrator();
+		try (Connection conn = getConnection()) {
+			int version = migrator.migrate(conn);
+			System.out.println("Database schema is at version " + version + ".");
 
+			for (String warning : migrator.verifyQueryPlans(conn)) {
+				System.err.println("Query plan without index: " + warning);
+			}
+		} catch (SQLException e) {
+			System.err.println("Error initializing database: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.hms.repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Conversions for DATETIME columns stored as fixed-width ISO text ("yyyy-MM-dd HH:mm:ss"),
+ * the same format SQLite's CURRENT_TIMESTAMP produces.
+ * Fixed width keeps lexicographic order equal to time order, so range
+ * predicates on these columns can seek an index.
+ */
+final class DateTimeColumns {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private DateTimeColumns() {
+    }
+
+    static String format(LocalDateTime value) {
+        return value == null ? null : value.format(FORMAT);
+    }
+
+    static LocalDateTime parse(String value) {
+        return value == null ? null : LocalDateTime.parse(value, FORMAT);
+    }
+}
@@ -0,0 +1,348 @@
+package com.hms.repository;
+
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+import com.hms.domain.Diagnosis;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for Diagnosis operations
+ * A patient's history is read newest first with keyset paging on
+ * idx_diagnosis_patient_date, so loading more on scroll costs the same on
+ * every page. diagnosis_date is fixed-width text, see DateTimeColumns.
+ */
+public class DiagnosisDAO {
+    /** Patient IDs bound per statement by getLatestDiagnoses */
+    public static final int LATEST_CHUNK_SIZE = 500;
+
+    // History order; diagnosis_id breaks ties so that the key is unique for keyset paging
+    private static final String HISTORY_ORDER = " ORDER BY diagnosis_date DESC, diagnosis_id DESC";
+    private static final String AFTER_KEY = " AND (diagnosis_date, diagnosis_id) < (?, ?)";
+    private static final String HISTORY_SQL = "SELECT * FROM Diagnosis WHERE patient_id = ?";
+    private static final String STATUS_SQL = "SELECT * FROM Diagnosis WHERE status = ?";
+    // One index seek per patient for its newest diagnosis, instead of one query per patient
+    private static final String LATEST_SQL = "SELECT * FROM Diagnosis WHERE diagnosis_id IN (" +
+            "SELECT (SELECT d.diagnosis_id FROM Diagnosis d WHERE d.patient_id = p.patient_id" +
+            " ORDER BY d.diagnosis_date DESC, d.diagnosis_id DESC LIMIT 1) " +
+            "FROM Patient p WHERE p.patient_id IN (%s))";
+
+	private DBHandler dbHandler;
+
+	public DiagnosisDAO() {
+		this.dbHandler = DBHandler.getInstance();
+	}
+
+    /**
+     * Insert a new diagnosis into the database
+     * @param diagnosis Diagnosis to insert; the current time is used when it has no date
+     * @return Generated diagnosis ID
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public int insertDiagnosis(Diagnosis diagnosis) throws DatabaseException, ValidationException {
+        validateDiagnosis(diagnosis);
+        if (diagnosis.getDiagnosisDate() == null) {
+            diagnosis.setDiagnosisDate(LocalDateTime.now().withNano(0));
+        }
+
+        String sql = "INSERT INTO Diagnosis (patient_id, doctor_id, diagnosis_date, symptoms, " +
+                     "diagnosis_description, prescribed_medication, notes, status) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindDiagnosis(pstmt, diagnosis);
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int diagnosisId = generatedKeys.getInt(1);
+                    diagnosis.setDiagnosisId(diagnosisId);
+                    return diagnosisId;
+                } else {
+                    throw new DatabaseException("Inserting diagnosis failed, no ID obtained.");
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error inserting diagnosis: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get diagnosis by ID
+     * @param diagnosisId Diagnosis ID
+     * @return Diagnosis object or null if not found
+     * @throws DatabaseException if database operation fails
+     */
+    public Diagnosis getDiagnosisById(int diagnosisId) throws DatabaseException {
+        List<Diagnosis> found = query("SELECT * FROM Diagnosis WHERE diagnosis_id = ?", diagnosisId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Get one page of a patient's history, newest first.
+     * The next page starts right after the given diagnosis, so every page costs the same.
+     * @param patientId Patient ID
+     * @param after Last diagnosis of the previous page, or null for the first page
+     * @param pageSize Maximum number of diagnoses to return
+     * @return Diagnoses older than the given one, at most pageSize of them
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Diagnosis> getHistory(int patientId, Diagnosis after, int pageSize) throws DatabaseException {
+        return getHistory(patientId, null, after, pageSize);
+    }
+
+    /**
+     * Get one page of a patient's diagnoses with the given statuses, newest first,
+     * e.g. the open problems (ACTIVE and FOLLOW_UP) shown at the top of a chart
+     * @param patientId Patient ID
+     * @param statuses Statuses to include, or null for all
+     * @param after Last diagnosis of the previous page, or null for the first page
+     * @param pageSize Maximum number of diagnoses to return
+     * @return Matching diagnoses older than the given one, at most pageSize of them
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Diagnosis> getHistory(int patientId, Set<Diagnosis.Status> statuses, Diagnosis after, int pageSize)
+            throws DatabaseException {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(patientId);
+        StringBuilder sql = new StringBuilder(HISTORY_SQL);
+        if (statuses != null) {
+            if (statuses.isEmpty()) {
+                return new ArrayList<>();
+            }
+            // The patient's rows are read from the index in order; status is only a filter on them
+            sql.append(" AND status IN (").append(placeholders(statuses.size())).append(')');
+            for (Diagnosis.Status status : statuses) {
+                parameters.add(status.name());
+            }
+        }
+        return page(sql, parameters, after, pageSize);
+    }
+
+    /**
+     * Get one page of diagnoses with a status across all patients, newest first,
+     * e.g. every FOLLOW_UP diagnosis still waiting for a visit
+     * @param status Status
+     * @param after Last diagnosis of the previous page, or null for the first page
+     * @param pageSize Maximum number of diagnoses to return
+     * @return Diagnoses older than the given one, at most pageSize of them
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Diagnosis> getDiagnosesByStatus(Diagnosis.Status status, Diagnosis after, int pageSize)
+            throws DatabaseException {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(status.name());
+        return page(new StringBuilder(STATUS_SQL), parameters, after, pageSize);
+    }
+
+    /**
+     * Get the newest diagnosis of each patient, e.g. for a ward list.
+     * Patients are looked up LATEST_CHUNK_SIZE at a time, so a ward of N patients
+     * takes N / LATEST_CHUNK_SIZE queries rather than N.
+     * @param patientIds Patient IDs
+     * @return Newest diagnosis by patient ID; patients without diagnoses are absent
+     * @throws DatabaseException if database operation fails
+     */
+    public Map<Integer, Diagnosis> getLatestDiagnoses(Collection<Integer> patientIds) throws DatabaseException {
+        if (patientIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Diagnosis> latest = new HashMap<>(patientIds.size() * 2);
+
+        try (Connection conn = dbHandler.getReadConnection()) {
+            Iterator<Integer> ids = patientIds.iterator();
+            List<Integer> chunk = new ArrayList<>(Math.min(patientIds.size(), LATEST_CHUNK_SIZE));
+            while (ids.hasNext()) {
+                chunk.add(ids.next());
+                if (chunk.size() == LATEST_CHUNK_SIZE || !ids.hasNext()) {
+                    readLatest(conn, chunk, latest);
+                    chunk.clear();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving latest diagnoses: " + e.getMessage(), e);
+        }
+
+        return latest;
+    }
+
+    private void readLatest(Connection conn, List<Integer> chunk, Map<Integer, Diagnosis> latest)
+            throws SQLException {
+        // Full chunks share one SQL text and so one cached statement
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                String.format(LATEST_SQL, placeholders(chunk.size())))) {
+            for (int i = 0; i < chunk.size(); i++) {
+                pstmt.setInt(i + 1, chunk.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Diagnosis diagnosis = mapResultSetToDiagnosis(rs);
+                    latest.put(diagnosis.getPatientId(), diagnosis);
+                }
+            }
+        }
+    }
+
+    /**
+     * Update diagnosis information
+     * @param diagnosis Diagnosis with updated information
+     * @return true if update successful
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public boolean updateDiagnosis(Diagnosis diagnosis) throws DatabaseException, ValidationException {
+        if (diagnosis.getDiagnosisId() == 0) {
+            throw new ValidationException("Diagnosis ID is required for update operation.");
+        }
+        validateDiagnosis(diagnosis);
+        if (diagnosis.getDiagnosisDate() == null) {
+            throw new ValidationException("Diagnosis date is required.");
+        }
+
+        String sql = "UPDATE Diagnosis SET patient_id = ?, doctor_id = ?, diagnosis_date = ?, symptoms = ?, " +
+                     "diagnosis_description = ?, prescribed_medication = ?, notes = ?, status = ? " +
+                     "WHERE diagnosis_id = ?";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindDiagnosis(pstmt, diagnosis);
+            pstmt.setInt(9, diagnosis.getDiagnosisId());
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating diagnosis: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete diagnosis by ID
+     * @param diagnosisId Diagnosis ID
+     * @return true if deletion successful
+     * @throws DatabaseException if database operation fails
+     */
+    public boolean deleteDiagnosis(int diagnosisId) throws DatabaseException {
+        String sql = "DELETE FROM Diagnosis WHERE diagnosis_id = ?";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, diagnosisId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting diagnosis: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Append the keyset condition, order and limit to a query and run it
+     */
+    private List<Diagnosis> page(StringBuilder sql, List<Object> parameters, Diagnosis after, int pageSize)
+            throws DatabaseException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        if (after != null) {
+            sql.append(AFTER_KEY);
+            parameters.add(DateTimeColumns.format(after.getDiagnosisDate()));
+            parameters.add(after.getDiagnosisId());
+        }
+        sql.append(HISTORY_ORDER).append(" LIMIT ?");
+        parameters.add(pageSize);
+        return query(sql.toString(), parameters.toArray());
+    }
+
+    private List<Diagnosis> query(String sql, Object... parameters) throws DatabaseException {
+        List<Diagnosis> diagnoses = new ArrayList<>();
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    diagnoses.add(mapResultSetToDiagnosis(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving diagnoses: " + e.getMessage(), e);
+        }
+
+        return diagnoses;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    private void bindDiagnosis(PreparedStatement pstmt, Diagnosis diagnosis) throws SQLException {
+        pstmt.setInt(1, diagnosis.getPatientId());
+        pstmt.setInt(2, diagnosis.getDoctorId());
+        pstmt.setString(3, DateTimeColumns.format(diagnosis.getDiagnosisDate()));
+        pstmt.setString(4, diagnosis.getSymptoms());
+        pstmt.setString(5, diagnosis.getDescription());
+        pstmt.setString(6, diagnosis.getPrescribedMedication());
+        pstmt.setString(7, diagnosis.getNotes());
+        pstmt.setString(8, diagnosis.getStatus().name());
+    }
+
+    /**
+     * Map ResultSet to Diagnosis object
+     */
+    private Diagnosis mapResultSetToDiagnosis(ResultSet rs) throws SQLException {
+        Diagnosis diagnosis = new Diagnosis();
+        diagnosis.setDiagnosisId(rs.getInt("diagnosis_id"));
+        diagnosis.setPatientId(rs.getInt("patient_id"));
+        diagnosis.setDoctorId(rs.getInt("doctor_id"));
+        diagnosis.setDiagnosisDate(DateTimeColumns.parse(rs.getString("diagnosis_date")));
+        diagnosis.setSymptoms(rs.getString("symptoms"));
+        diagnosis.setDescription(rs.getString("diagnosis_description"));
+        diagnosis.setPrescribedMedication(rs.getString("prescribed_medication"));
+        diagnosis.setNotes(rs.getString("notes"));
+        String status = rs.getString("status");
+        if (status != null) {
+            diagnosis.setStatus(Diagnosis.Status.valueOf(status));
+        }
+        return diagnosis;
+    }
+
+    /**
+     * Validate diagnosis data
+     * @param diagnosis Diagnosis to validate
+     * @throws ValidationException if validation fails
+     */
+    private void validateDiagnosis(Diagnosis diagnosis) throws ValidationException {
+        if (diagnosis.getPatientId() <= 0) {
+            throw new ValidationException("Patient is required.");
+        }
+        if (diagnosis.getDoctorId() <= 0) {
+            throw new ValidationException("Diagnosing doctor is required.");
+        }
+        if (diagnosis.getDescription() == null || diagnosis.getDescription().trim().isEmpty()) {
+            throw new ValidationException("Diagnosis description is required.");
+        }
+        if (diagnosis.getStatus() == null) {
+            throw new ValidationException("Diagnosis status is required.");
+        }
+    }
+}
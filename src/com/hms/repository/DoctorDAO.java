@@ -0,0 +1,216 @@
+package com.hms.repository;
+
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+import com.hms.domain.Doctor;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for Doctor operations
+ */
+public class DoctorDAO {
+	private DBHandler dbHandler;
+
+	public DoctorDAO() {
+		this.dbHandler = DBHandler.getInstance();
+	}
+
+    /**
+     * Insert a new doctor into the database
+     * @param doctor Doctor object to insert
+     * @return Generated doctor ID
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public int insertDoctor(Doctor doctor) throws DatabaseException, ValidationException {
+        validateDoctor(doctor);
+
+        String sql = "INSERT INTO Doctor (name, email, specialty, contact, availability) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindDoctor(pstmt, doctor);
+            pstmt.executeUpdate();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int doctorId = generatedKeys.getInt(1);
+                    doctor.setId(doctorId);
+                    EntityCounters.getInstance().doctorsAdded(1);
+                    return doctorId;
+                } else {
+                    throw new DatabaseException("Inserting doctor failed, no ID obtained.");
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error inserting doctor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get doctor by ID
+     * @param doctorId Doctor ID
+     * @return Doctor object or null if not found
+     * @throws DatabaseException if database operation fails
+     */
+    public Doctor getDoctorById(int doctorId) throws DatabaseException {
+        String sql = "SELECT * FROM Doctor WHERE doctor_id = ?";
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, doctorId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToDoctor(rs);
+                }
+                return null;
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving doctor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get all doctors ordered by name
+     * @return List of all doctors
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Doctor> getAllDoctors() throws DatabaseException {
+        return query("SELECT * FROM Doctor ORDER BY name, doctor_id", null);
+    }
+
+    /**
+     * Get the doctors of one specialty
+     * @param specialty Specialty, e.g. "Cardiology"
+     * @return Doctors of that specialty ordered by name
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Doctor> getDoctorsBySpecialty(String specialty) throws DatabaseException {
+        return query("SELECT * FROM Doctor WHERE specialty = ? ORDER BY name, doctor_id", specialty);
+    }
+
+    /**
+     * Count all doctors
+     * @return Number of rows in the Doctor table
+     * @throws DatabaseException if database operation fails
+     */
+    public int countDoctors() throws DatabaseException {
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM Doctor");
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error counting doctors: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Update doctor information
+     * @param doctor Doctor object with updated information
+     * @return true if update successful
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public boolean updateDoctor(Doctor doctor) throws DatabaseException, ValidationException {
+        if (doctor.getId() == 0) {
+            throw new ValidationException("Doctor ID is required for update operation.");
+        }
+        validateDoctor(doctor);
+
+        String sql = "UPDATE Doctor SET name = ?, email = ?, specialty = ?, contact = ?, availability = ? " +
+                     "WHERE doctor_id = ?";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindDoctor(pstmt, doctor);
+            pstmt.setInt(6, doctor.getId());
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating doctor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete doctor by ID
+     * @param doctorId Doctor ID
+     * @return true if deletion successful
+     * @throws DatabaseException if database operation fails, e.g. the doctor still has appointments
+     */
+    public boolean deleteDoctor(int doctorId) throws DatabaseException {
+        String sql = "DELETE FROM Doctor WHERE doctor_id = ?";
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, doctorId);
+            int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                EntityCounters.getInstance().doctorsRemoved(affectedRows);
+            }
+            return affectedRows > 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting doctor: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Doctor> query(String sql, String parameter) throws DatabaseException {
+        List<Doctor> doctors = new ArrayList<>();
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (parameter != null) {
+                pstmt.setString(1, parameter);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    doctors.add(mapResultSetToDoctor(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving doctors: " + e.getMessage(), e);
+        }
+
+        return doctors;
+    }
+
+    private void bindDoctor(PreparedStatement pstmt, Doctor doctor) throws SQLException {
+        pstmt.setString(1, doctor.getName());
+        pstmt.setString(2, doctor.getEmail());
+        pstmt.setString(3, doctor.getSpecialty());
+        pstmt.setString(4, doctor.getContact());
+        pstmt.setString(5, doctor.getAvailability());
+    }
+
+    /**
+     * Map ResultSet to Doctor object
+     */
+    private Doctor mapResultSetToDoctor(ResultSet rs) throws SQLException {
+        return new Doctor(rs.getInt("doctor_id"), rs.getString("name"), rs.getString("email"),
+                rs.getString("specialty"), rs.getString("contact"), rs.getString("availability"));
+    }
+
+    /**
+     * Validate doctor data
+     * @param doctor Doctor to validate
+     * @throws ValidationException if validation fails
+     */
+    private void validateDoctor(Doctor doctor) throws ValidationException {
+        if (doctor.getName() == null || doctor.getName().trim().isEmpty()) {
+            throw new ValidationException("Doctor name is required.");
+        }
+    }
+}
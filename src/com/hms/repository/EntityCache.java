@@ -0,0 +1,203 @@
+package com.hms.repository;
+
+import com.hms.exception.DatabaseException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache of entities loaded by a DAO, keyed by ID.
+ * Entries are evicted least recently used first once the cache is full, and
+ * expire after a fixed time to live so that rows changed outside this process
+ * are eventually reread. Callers get copies, so editing a returned entity
+ * never changes the cached one.
+ *
+ * Loads run outside the lock. A load that overlaps an invalidate() of any key
+ * is returned but not cached, so an update cannot be overwritten by a stale
+ * row read just before it.
+ * @param <K> Key type, e.g. the primary key
+ * @param <V> Entity type
+ */
+public class EntityCache<K, V> {
+
+    /**
+     * Reads one entity from the database
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        /**
+         * @return The entity, or null if there is none; null results are not cached
+         */
+        V load(K key) throws DatabaseException;
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    // Incremented by every invalidation; a load only stores its result if this did not change meanwhile
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    /**
+     * @param maxSize Maximum number of entries; 0 disables caching
+     * @param ttl Time an entry may be served after it was loaded
+     * @param unit Unit of ttl
+     * @param copier Makes an independent copy of an entity
+     */
+    public EntityCache(int maxSize, long ttl, TimeUnit unit, UnaryOperator<V> copier) {
+        if (maxSize < 0 || ttl < 0) {
+            throw new IllegalArgumentException("Cache size and time to live cannot be negative.");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.copier = copier;
+    }
+
+    /**
+     * Get an entity from the cache, loading and caching it on a miss
+     * @param key Entity key
+     * @param loader Reads the entity when it is not cached
+     * @return Copy of the entity, or null if the loader found none
+     * @throws DatabaseException if the loader fails
+     */
+    public V get(K key, Loader<K, V> loader) throws DatabaseException {
+        long loadGeneration;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits.incrementAndGet();
+                    return copier.apply(entry.value);
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        long start = System.nanoTime();
+        V value = loader.load(key);
+        long loaded = System.nanoTime();
+        loads.incrementAndGet();
+        loadNanos.addAndGet(loaded - start);
+        if (value == null || maxSize == 0) {
+            return value;
+        }
+
+        lock.lock();
+        try {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, loaded + ttlNanos));
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return copier.apply(value);
+    }
+
+    /**
+     * Drop an entry, e.g. after the row was updated or deleted
+     * @param key Entity key
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public long getTtlSeconds() { return TimeUnit.NANOSECONDS.toSeconds(ttlNanos); }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getExpirations() { return expirations.get(); }
+    public long getLoadCount() { return loads.get(); }
+
+    /**
+     * @return Share of lookups served from the cache, between 0 and 1
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return Mean time the loader took on a miss, in milliseconds
+     */
+    public double getAverageLoadMillis() {
+        long count = loads.get();
+        return count == 0 ? 0.0 : loadNanos.get() / 1e6 / count;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache [size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", hitRatio=" + String.format("%.3f", getHitRatio())
+                + ", evictions=" + getEvictions() + ", expirations=" + getExpirations()
+                + ", averageLoadMillis=" + String.format("%.3f", getAverageLoadMillis()) + "]";
+    }
+
+    /**
+     * Evict least recently used entries until the cache is within its size limit
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hms.repository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Running totals shown on the dashboard
+ * The DAOs and DataService adjust these counters on every insert, update and
+ * delete, so reading them never scans a table. rebuild() recounts from the
+ * authoritative stores, e.g. on startup.
+ */
+public class EntityCounters {
+    private static final EntityCounters INSTANCE = new EntityCounters();
+
+    private final AtomicInteger patients = new AtomicInteger();
+    private final AtomicInteger doctors = new AtomicInteger();
+    private final AtomicInteger activeAppointments = new AtomicInteger();
+    private final DoubleAdder revenue = new DoubleAdder();
+
+    private EntityCounters() {
+    }
+
+    public static EntityCounters getInstance() {
+        return INSTANCE;
+    }
+
+    public int getPatients() { return patients.get(); }
+    public int getDoctors() { return doctors.get(); }
+    public int getActiveAppointments() { return activeAppointments.get(); }
+    public double getRevenue() { return revenue.sum(); }
+
+    public void patientsAdded(int count) { patients.addAndGet(count); }
+    public void patientsRemoved(int count) { patients.addAndGet(-count); }
+
+    public void doctorsAdded(int count) { doctors.addAndGet(count); }
+    public void doctorsRemoved(int count) { doctors.addAndGet(-count); }
+
+    public void activeAppointmentsAdded(int count) { activeAppointments.addAndGet(count); }
+    public void activeAppointmentsRemoved(int count) { activeAppointments.addAndGet(-count); }
+
+    public void revenueRecorded(double amount) { revenue.add(amount); }
+
+    /**
+     * Replace the entity counts with freshly counted values.
+     * Revenue is not derived from stored rows and is left as is.
+     */
+    public void rebuild(int patientCount, int doctorCount, int activeAppointmentCount) {
+        patients.set(patientCount);
+        doctors.set(doctorCount);
+        activeAppointments.set(activeAppointmentCount);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCounters [patients=" + getPatients() + ", doctors=" + getDoctors()
+                + ", activeAppointments=" + getActiveAppointments() + ", revenue=" + getRevenue() + "]";
+    }
+}
@@ -3,17 +3,70 @@ package com.hms.repository;
 import com.hms.exception.DatabaseException;
 import com.hms.exception.ValidationException;
 import com.hms.domain.Patient;
+import com.hms.event.ChangeEvent;
+import com.hms.event.ChangeEventBus;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object for Patient operations
  * Demonstrates CRUD operations with SQLException handling
  */
 public class PatientDAO {
+    /** Rows per transaction used by insertPatients when no chunk size is given */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO Patient (first_name, last_name, date_of_birth, gender, " +
+            "phone, email, address, emergency_contact, emergency_phone, blood_type, " +
+            "registration_date, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Listing order; patient_id breaks ties so that the key is unique for keyset paging
+    private static final String LIST_ORDER = " ORDER BY last_name, first_name, patient_id";
+    private static final String FIRST_PAGE_SQL = "SELECT * FROM Patient" + LIST_ORDER + " LIMIT ?";
+    private static final String NEXT_PAGE_SQL = "SELECT * FROM Patient " +
+            "WHERE (last_name, first_name, patient_id) > (?, ?, ?)" + LIST_ORDER + " LIMIT ?";
+    // Deferred join: the OFFSET is walked on idx_patient_name alone, full rows are read only
+    // for the page, which comes back in rowid order and is sorted in memory
+    private static final String OFFSET_PAGE_SQL = "SELECT * FROM Patient WHERE patient_id IN (" +
+            "SELECT patient_id FROM Patient" + LIST_ORDER + " LIMIT ? OFFSET ?)";
+    // Search candidates from the PatientSearch trigram index, unranked so that the index stops at the LIMIT
+    private static final String SEARCH_SQL = "SELECT * FROM Patient WHERE patient_id IN (" +
+            "SELECT rowid FROM PatientSearch WHERE PatientSearch MATCH ? LIMIT ?)";
+    // Queries shorter than one trigram fall back to a case-insensitive range seek on idx_patient_name_nocase
+    private static final String NAME_PREFIX_ORDER =
+            " ORDER BY last_name COLLATE NOCASE, first_name COLLATE NOCASE, patient_id";
+    private static final String NAME_PREFIX_SQL = "SELECT * FROM Patient " +
+            "WHERE last_name >= ? COLLATE NOCASE AND last_name < ? COLLATE NOCASE" + NAME_PREFIX_ORDER + " LIMIT ?";
+    // For prefixes whose last character cannot be incremented; rows past the prefix end the read
+    private static final String NAME_FROM_SQL = "SELECT * FROM Patient " +
+            "WHERE last_name >= ? COLLATE NOCASE" + NAME_PREFIX_ORDER + " LIMIT ?";
+    // Candidates read per requested result and ranked by PatientSearch
+    private static final int SEARCH_CANDIDATES_PER_RESULT = 10;
+
+    private static final Comparator<Patient> LIST_COMPARATOR = Comparator
+            .comparing(Patient::getLastName)
+            .thenComparing(Patient::getFirstName)
+            .thenComparingInt(Patient::getPatientId);
+
+    // Charts opened by ID, shared by every PatientDAO; sized and timed with hms.cache.patients.*
+    private static final EntityCache<Integer, Patient> PATIENT_CACHE = new EntityCache<>(
+            Integer.getInteger("hms.cache.patients.maxSize", 1_000),
+            Long.getLong("hms.cache.patients.ttlSeconds", 300L), TimeUnit.SECONDS,
+            PatientDAO::copyOf);
+
 	private DBHandler dbHandler;
 
 	public PatientDAO() {
@@ -31,37 +84,11 @@ public class PatientDAO {
         // Validate patient data
         validatePatient(patient);
 
-        String sql = "INSERT INTO Patient (first_name, last_name, date_of_birth, gender, " +
-                     "phone, email, address, emergency_contact, emergency_phone, blood_type, " +
-                     "registration_date, created_by) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = dbHandler.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             // Set parameters
-            pstmt.setString(1, patient.getFirstName());
-            pstmt.setString(2, patient.getLastName());
-            pstmt.setDate(3, Date.valueOf(patient.getDateOfBirth()));
-            pstmt.setString(4, patient.getGender().name());
-            pstmt.setString(5, patient.getPhone());
-            pstmt.setString(6, patient.getEmail());
-            pstmt.setString(7, patient.getAddress());
-            pstmt.setString(8, patient.getEmergencyContact());
-            pstmt.setString(9, patient.getEmergencyPhone());
-            pstmt.setString(10, patient.getBloodType());
-            
-            LocalDateTime regDate = patient.getRegistrationDate();
-            if (regDate == null) {
-                regDate = LocalDateTime.now();
-            }
-            pstmt.setTimestamp(11, Timestamp.valueOf(regDate));
-            
-            if (patient.getCreatedBy() != null) {
-                pstmt.setInt(12, patient.getCreatedBy());
-            } else {
-                pstmt.setNull(12, Types.INTEGER);
-            }
+            bindInsert(pstmt, patient);
 
             // Execute insert
             int affectedRows = pstmt.executeUpdate();
@@ -75,6 +102,8 @@ public class PatientDAO {
                 if (generatedKeys.next()) {
                     int patientId = generatedKeys.getInt(1);
                     patient.setPatientId(patientId);
+                    EntityCounters.getInstance().patientsAdded(1);
+                    publish(ChangeEvent.Operation.INSERT, patientId);
                     return patientId;
                 } else {
                     throw new DatabaseException("Inserting patient failed, no ID obtained.");
@@ -88,15 +117,183 @@ public class PatientDAO {
     }
 
     /**
-     * Get patient by ID
+     * Insert many patients using batched statements, DEFAULT_BATCH_SIZE rows per transaction
+     * @param patients Patients to insert; may be a lazily produced sequence
+     * @return Generated IDs and per-row failures
+     * @throws DatabaseException if the database cannot be reached
+     */
+    public BulkInsertResult insertPatients(Iterable<Patient> patients) throws DatabaseException {
+        return insertPatients(patients, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Insert many patients using batched statements.
+     * Rows that fail validation are reported and skipped. Each chunk is written in
+     * one transaction; if a chunk's batch fails it is retried row by row so that only
+     * the offending rows are rejected and the rest of the import goes through.
+     * @param patients Patients to insert; may be a lazily produced sequence
+     * @param chunkSize Number of rows per batch and per transaction
+     * @return Generated IDs and per-row failures
+     * @throws DatabaseException if the database cannot be reached
+     */
+    public BulkInsertResult insertPatients(Iterable<Patient> patients, int chunkSize) throws DatabaseException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1.");
+        }
+
+        BulkInsertResult result = new BulkInsertResult();
+        List<Patient> chunk = new ArrayList<>(Math.min(chunkSize, 4096));
+        List<Integer> chunkRows = new ArrayList<>(Math.min(chunkSize, 4096));
+
+        try (Connection conn = dbHandler.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+
+            conn.setAutoCommit(false);
+            try {
+                int row = 0;
+                for (Patient patient : patients) {
+                    try {
+                        validatePatient(patient);
+                        chunk.add(patient);
+                        chunkRows.add(row);
+                    } catch (ValidationException e) {
+                        result.addFailure(row, patient, e.getMessage());
+                    }
+                    row++;
+
+                    if (chunk.size() == chunkSize) {
+                        insertChunk(conn, pstmt, chunk, chunkRows, result);
+                        chunk.clear();
+                        chunkRows.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    insertChunk(conn, pstmt, chunk, chunkRows, result);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error inserting patients: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Insert one chunk in its own transaction.
+     * With AUTOINCREMENT and a single writer, rows of one batch receive consecutive
+     * IDs ending at last_insert_rowid(), so the IDs are derived without a round trip per row.
+     */
+    private void insertChunk(Connection conn, PreparedStatement pstmt, List<Patient> chunk,
+                             List<Integer> chunkRows, BulkInsertResult result) throws SQLException {
+        try {
+            for (Patient patient : chunk) {
+                bindInsert(pstmt, patient);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            int lastId = (int) lastInsertRowId(conn);
+            conn.commit();
+            EntityCounters.getInstance().patientsAdded(chunk.size());
+
+            int firstId = lastId - chunk.size() + 1;
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setPatientId(firstId + i);
+                result.addInserted(firstId + i);
+                publish(ChangeEvent.Operation.INSERT, firstId + i);
+            }
+            return;
+        } catch (SQLException e) {
+            conn.rollback();
+            pstmt.clearBatch();
+        }
+
+        // The batch failed: insert row by row so that only the bad rows are rejected.
+        // A failed INSERT only undoes itself, not the surrounding transaction.
+        List<Integer> ids = new ArrayList<>();
+        List<Patient> inserted = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Patient patient = chunk.get(i);
+            try {
+                bindInsert(pstmt, patient);
+                pstmt.executeUpdate();
+                ids.add((int) lastInsertRowId(conn));
+                inserted.add(patient);
+            } catch (SQLException e) {
+                result.addFailure(chunkRows.get(i), patient, e.getMessage());
+            }
+        }
+        conn.commit();
+        EntityCounters.getInstance().patientsAdded(inserted.size());
+
+        for (int i = 0; i < inserted.size(); i++) {
+            inserted.get(i).setPatientId(ids.get(i));
+            result.addInserted(ids.get(i));
+            publish(ChangeEvent.Operation.INSERT, ids.get(i));
+        }
+    }
+
+    private long lastInsertRowId(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT last_insert_rowid()");
+             ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Set the INSERT_SQL parameters from a patient
+     */
+    private void bindInsert(PreparedStatement pstmt, Patient patient) throws SQLException {
+        pstmt.setString(1, patient.getFirstName());
+        pstmt.setString(2, patient.getLastName());
+        pstmt.setDate(3, Date.valueOf(patient.getDateOfBirth()));
+        pstmt.setString(4, patient.getGender().name());
+        pstmt.setString(5, patient.getPhone());
+        pstmt.setString(6, patient.getEmail());
+        pstmt.setString(7, patient.getAddress());
+        pstmt.setString(8, patient.getEmergencyContact());
+        pstmt.setString(9, patient.getEmergencyPhone());
+        pstmt.setString(10, patient.getBloodType());
+
+        LocalDateTime regDate = patient.getRegistrationDate();
+        if (regDate == null) {
+            regDate = LocalDateTime.now();
+        }
+        pstmt.setTimestamp(11, Timestamp.valueOf(regDate));
+
+        if (patient.getCreatedBy() != null) {
+            pstmt.setInt(12, patient.getCreatedBy());
+        } else {
+            pstmt.setNull(12, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Get patient by ID.
+     * Served from the patient cache when the chart was read recently; the returned
+     * patient is a copy and can be edited freely.
      * @param patientId Patient ID
      * @return Patient object or null if not found
      * @throws DatabaseException if database operation fails
      */
     public Patient getPatientById(int patientId) throws DatabaseException {
+        return PATIENT_CACHE.get(patientId, this::loadPatientById);
+    }
+
+    /**
+     * Cache of getPatientById, e.g. to read its hit ratio
+     */
+    public static EntityCache<Integer, Patient> getPatientCache() {
+        return PATIENT_CACHE;
+    }
+
+    private Patient loadPatientById(int patientId) throws DatabaseException {
         String sql = "SELECT * FROM Patient WHERE patient_id = ?";
 
-        try (Connection conn = dbHandler.getConnection();
+        try (Connection conn = dbHandler.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, patientId);
@@ -114,29 +311,264 @@ public class PatientDAO {
     }
 
     /**
-     * Get all patients
+     * Get all patients.
+     * Loads the whole table into memory; prefer getPatientsPage or streamPatients for large registries.
      * @return List of all patients
      * @throws DatabaseException if database operation fails
      */
     public List<Patient> getAllPatients() throws DatabaseException {
-        List<Patient> patients = new ArrayList<>();
-        String sql = "SELECT * FROM Patient ORDER BY last_name, first_name";
+        try (Stream<Patient> stream = streamPatients()) {
+            List<Patient> patients = new ArrayList<>();
+            stream.forEach(patients::add);
+            return patients;
+        } catch (IllegalStateException e) {
+            throw new DatabaseException("Error retrieving all patients: " + e.getMessage(), e.getCause());
+        }
+    }
 
-        try (Connection conn = dbHandler.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Get one page of patients ordered by last name, first name and ID.
+     * Uses keyset (seek) pagination: the next page starts right after the given
+     * patient's key, so every page costs the same no matter how deep it is.
+     * @param after Last patient of the previous page, or null for the first page
+     * @param pageSize Maximum number of patients to return
+     * @return Patients following the given key, at most pageSize of them
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Patient> getPatientsPage(Patient after, int pageSize) throws DatabaseException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        List<Patient> patients = new ArrayList<>(pageSize);
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(after == null ? FIRST_PAGE_SQL : NEXT_PAGE_SQL)) {
 
-            while (rs.next()) {
-                patients.add(mapResultSetToPatient(rs));
+            if (after == null) {
+                pstmt.setInt(1, pageSize);
+            } else {
+                pstmt.setString(1, after.getLastName());
+                pstmt.setString(2, after.getFirstName());
+                pstmt.setInt(3, after.getPatientId());
+                pstmt.setInt(4, pageSize);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    patients.add(mapResultSetToPatient(rs));
+                }
             }
 
         } catch (SQLException e) {
-            throw new DatabaseException("Error retrieving all patients: " + e.getMessage(), e);
+            throw new DatabaseException("Error retrieving patient page: " + e.getMessage(), e);
         }
 
         return patients;
     }
 
+    /**
+     * Get patients by position in the listing order.
+     * Prefer getPatientsPage(Patient, int) for sequential paging; this is for random
+     * access, e.g. when a table is scrolled straight to the middle of the registry.
+     * @param offset Zero-based position of the first patient
+     * @param pageSize Maximum number of patients to return
+     * @return Patients at positions offset .. offset + pageSize - 1
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Patient> getPatientsAt(int offset, int pageSize) throws DatabaseException {
+        List<Patient> patients = new ArrayList<>(pageSize);
+
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(OFFSET_PAGE_SQL)) {
+
+            pstmt.setInt(1, pageSize);
+            pstmt.setInt(2, offset);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    patients.add(mapResultSetToPatient(rs));
+                }
+            }
+            patients.sort(LIST_COMPARATOR);
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving patient page: " + e.getMessage(), e);
+        }
+
+        return patients;
+    }
+
+    /**
+     * Type-ahead search by partial name, phone, email or emergency contact.
+     * Every word of three or more characters must occur somewhere in the patient's
+     * searchable columns. Patients whose name starts with the query come first,
+     * then name matches, then matches on contact details. When fewer than limit
+     * patients match, the rest is filled with fuzzy matches that share most of
+     * the query's trigrams, which tolerates typos.
+     * Queries shorter than three characters match last name prefixes only, ignoring case.
+     * @param query Text typed by the user
+     * @param limit Maximum number of patients to return
+     * @return Best matches first; empty for a blank query
+     * @throws DatabaseException if database operation fails
+     */
+    public List<Patient> searchPatients(String query, int limit) throws DatabaseException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        PatientSearch search = new PatientSearch(query);
+        if (!search.isIndexable()) {
+            return searchByNamePrefix(query.trim(), limit);
+        }
+
+        int candidates = limit * SEARCH_CANDIDATES_PER_RESULT;
+        Map<Integer, Patient> found = new LinkedHashMap<>();
+        try (Connection conn = dbHandler.getReadConnection()) {
+            if (query.trim().indexOf(' ') < 0) {
+                // The trigram index returns rows in ID order, so make sure the best (prefix) matches are seen
+                for (Patient patient : searchByNamePrefix(conn, query.trim(), limit)) {
+                    found.put(patient.getPatientId(), patient);
+                }
+            }
+            readCandidates(conn, search.exactExpression(), candidates, found);
+            if (found.size() < limit && search.fuzzyExpression() != null) {
+                readCandidates(conn, search.fuzzyExpression(), candidates, found);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error searching patients: " + e.getMessage(), e);
+        }
+        return search.rank(new ArrayList<>(found.values()), limit);
+    }
+
+    private void readCandidates(Connection conn, String matchExpression, int limit, Map<Integer, Patient> found)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SEARCH_SQL)) {
+            pstmt.setString(1, matchExpression);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Patient patient = mapResultSetToPatient(rs);
+                    found.putIfAbsent(patient.getPatientId(), patient);
+                }
+            }
+        }
+    }
+
+    private List<Patient> searchByNamePrefix(String prefix, int limit) throws DatabaseException {
+        try (Connection conn = dbHandler.getReadConnection()) {
+            return searchByNamePrefix(conn, prefix, limit);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error searching patients: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Prefix search on a connection the caller already holds, so that a search
+     * never waits for a second reader while keeping one borrowed
+     */
+    private List<Patient> searchByNamePrefix(Connection conn, String prefix, int limit) throws SQLException {
+        // NOCASE folds ASCII letters only, so fold the bound the same way: an upper-case
+        // last letter incremented would otherwise give a bound below every lower-case name
+        String from = foldAscii(prefix);
+        char last = from.charAt(from.length() - 1);
+        char next = (char) (last + 1);
+        boolean bounded = last != Character.MAX_VALUE && !Character.isSurrogate(last) && !Character.isSurrogate(next);
+        List<Patient> patients = new ArrayList<>();
+
+        try (PreparedStatement pstmt = conn.prepareStatement(bounded ? NAME_PREFIX_SQL : NAME_FROM_SQL)) {
+            int index = 1;
+            pstmt.setString(index++, from);
+            if (bounded) {
+                pstmt.setString(index++, from.substring(0, from.length() - 1) + next);
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Patient patient = mapResultSetToPatient(rs);
+                    String lastName = patient.getLastName();
+                    if (lastName == null || !lastName.regionMatches(true, 0, from, 0, from.length())) {
+                        break;
+                    }
+                    patients.add(patient);
+                }
+            }
+        }
+        return patients;
+    }
+
+    /**
+     * Lower-case ASCII letters only, the way SQLite's NOCASE collation compares them
+     */
+    private static String foldAscii(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Count all patients
+     * @return Number of rows in the Patient table
+     * @throws DatabaseException if database operation fails
+     */
+    public int countPatients() throws DatabaseException {
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM Patient");
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error counting patients: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stream all patients in listing order, mapping each row only when it is consumed.
+     * The stream holds a read connection until it is closed, so use it in try-with-resources.
+     * SQL errors while iterating are rethrown as IllegalStateException with the SQLException as cause.
+     * @return Lazily populated stream of patients
+     * @throws DatabaseException if the query cannot be started
+     */
+    public Stream<Patient> streamPatients() throws DatabaseException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dbHandler.getReadConnection();
+            pstmt = conn.prepareStatement("SELECT * FROM Patient" + LIST_ORDER);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, pstmt, conn);
+            throw new DatabaseException("Error streaming patients: " + e.getMessage(), e);
+        }
+
+        final Connection openConn = conn;
+        final PreparedStatement openStmt = pstmt;
+        final ResultSet cursor = rs;
+        Spliterator<Patient> rows = new Spliterators.AbstractSpliterator<Patient>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Patient> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapResultSetToPatient(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error streaming patients: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeQuietly(cursor, openStmt, openConn));
+    }
+
     /**
      * Update patient information
      * @param patient Patient object with updated information
@@ -171,6 +603,10 @@ public class PatientDAO {
             pstmt.setInt(11, patient.getPatientId());
 
             int affectedRows = pstmt.executeUpdate();
+            PATIENT_CACHE.invalidate(patient.getPatientId());
+            if (affectedRows > 0) {
+                publish(ChangeEvent.Operation.UPDATE, patient.getPatientId());
+            }
             return affectedRows > 0;
 
         } catch (SQLException e) {
@@ -192,6 +628,11 @@ public class PatientDAO {
 
             pstmt.setInt(1, patientId);
             int affectedRows = pstmt.executeUpdate();
+            PATIENT_CACHE.invalidate(patientId);
+            if (affectedRows > 0) {
+                EntityCounters.getInstance().patientsRemoved(affectedRows);
+                publish(ChangeEvent.Operation.DELETE, patientId);
+            }
             return affectedRows > 0;
 
         } catch (SQLException e) {
@@ -199,6 +640,37 @@ public class PatientDAO {
         }
     }
 
+    /**
+     * Announce a patient change; called while the writer connection is still held,
+     * so that event versions follow the order of the writes
+     */
+    private static void publish(ChangeEvent.Operation operation, int patientId) {
+        ChangeEventBus.getInstance().publish(ChangeEvent.Entity.PATIENT, operation, patientId);
+    }
+
+    private void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error closing database resource: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Independent copy of a patient, so that cached patients are never shared with callers
+     */
+    private static Patient copyOf(Patient patient) {
+        return new Patient(patient.getPatientId(), patient.getFirstName(), patient.getLastName(),
+                patient.getDateOfBirth(), patient.getGender(), patient.getPhone(), patient.getEmail(),
+                patient.getAddress(), patient.getEmergencyContact(), patient.getEmergencyPhone(),
+                patient.getBloodType(), patient.getRegistrationDate(), patient.getCreatedBy());
+    }
+
     /**
      * Map ResultSet to Patient object
      */
@@ -239,11 +711,11 @@ public class PatientDAO {
     }
 
     /**
-     * Validate patient data
+     * Validate patient data, e.g. before queueing rows for insertPatients
      * @param patient Patient to validate
      * @throws ValidationException if validation fails
      */
-    private void validatePatient(Patient patient) throws ValidationException {
+    public void validatePatient(Patient patient) throws ValidationException {
         if (patient.getFirstName() == null || patient.getFirstName().trim().isEmpty()) {
             throw new ValidationException("First name is required.");
         }
@@ -0,0 +1,169 @@
+package com.hms.repository;
+
+import com.hms.domain.Patient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Query building and ranking for PatientDAO.searchPatients.
+ * FTS5 bm25 ordering has to score every match, which takes tens of milliseconds
+ * for common names on a large registry, so candidates are read unranked (the
+ * trigram index stops after LIMIT rows) and ranked here instead:
+ * name prefix, then name substring, then contact details, then fuzzy matches
+ * by trigram similarity.
+ */
+final class PatientSearch {
+    static final int TRIGRAM = 3;
+    // Fuzzy candidates whose closest field is less similar to the query than this are dropped
+    private static final double MIN_SIMILARITY = 0.2;
+
+    private static final int PREFIX = 0;
+    private static final int NAME = 1;
+    private static final int CONTACT = 2;
+    private static final int FUZZY = 3;
+
+    private final List<String> words = new ArrayList<>();
+    private final Set<String> trigrams = new LinkedHashSet<>();
+
+    /**
+     * @param query Text typed by the user; words shorter than a trigram are ignored
+     */
+    PatientSearch(String query) {
+        for (String word : (query == null ? "" : query.trim()).split("\\s+")) {
+            if (word.length() >= TRIGRAM) {
+                String lower = word.toLowerCase(Locale.ROOT);
+                words.add(lower);
+                for (int i = 0; i + TRIGRAM <= lower.length(); i++) {
+                    trigrams.add(lower.substring(i, i + TRIGRAM));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if the query has no word the trigram index can match
+     */
+    boolean isIndexable() {
+        return !words.isEmpty();
+    }
+
+    /**
+     * Every word as a quoted FTS5 phrase; the trigram tokenizer matches phrases as substrings
+     */
+    String exactExpression() {
+        return join(words, " AND ");
+    }
+
+    /**
+     * Any trigram of any word, which tolerates typos; null when it would not differ from the exact expression
+     */
+    String fuzzyExpression() {
+        return trigrams.size() <= 1 ? null : join(trigrams, " OR ");
+    }
+
+    /**
+     * Sort candidates best first and drop fuzzy ones too far from the query
+     * @param candidates Patients returned by the exact or fuzzy expression
+     * @param limit Maximum number of patients to keep
+     * @return Ranked patients
+     */
+    List<Patient> rank(List<Patient> candidates, int limit) {
+        List<Ranked> ranked = new ArrayList<>(candidates.size());
+        for (Patient patient : candidates) {
+            Ranked r = score(patient);
+            if (r.tier < FUZZY || r.similarity >= MIN_SIMILARITY) {
+                ranked.add(r);
+            }
+        }
+        ranked.sort(Comparator.<Ranked>comparingInt(r -> r.tier)
+                .thenComparing(r -> -r.similarity)
+                .thenComparing(r -> r.patient.getLastName(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(r -> r.patient.getFirstName(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(r -> r.patient.getPatientId()));
+
+        List<Patient> patients = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            patients.add(ranked.get(i).patient);
+        }
+        return patients;
+    }
+
+    private Ranked score(Patient patient) {
+        String first = lower(patient.getFirstName());
+        String last = lower(patient.getLastName());
+        String contact = lower(patient.getPhone()) + ' ' + lower(patient.getEmail()) + ' '
+                + lower(patient.getEmergencyContact());
+
+        boolean allFound = true;
+        boolean allInName = true;
+        for (String word : words) {
+            boolean inName = first.contains(word) || last.contains(word);
+            allInName &= inName;
+            allFound &= inName || contact.contains(word);
+        }
+        if (!allFound) {
+            double similarity = 0;
+            for (String field : new String[] {first, last, first + ' ' + last, lower(patient.getPhone()),
+                    lower(patient.getEmail()), lower(patient.getEmergencyContact())}) {
+                similarity = Math.max(similarity, similarity(field));
+            }
+            return new Ranked(patient, FUZZY, similarity);
+        }
+        if (first.startsWith(words.get(0)) || last.startsWith(words.get(0))) {
+            return new Ranked(patient, allInName ? PREFIX : NAME, 1.0);
+        }
+        return new Ranked(patient, allInName ? NAME : CONTACT, 1.0);
+    }
+
+    /**
+     * Jaccard similarity of the query's trigrams and the field's trigrams, so that
+     * "smiht" is closer to "smith" than to "goldsmith"
+     */
+    private double similarity(String field) {
+        Set<String> fieldTrigrams = new HashSet<>();
+        for (int i = 0; i + TRIGRAM <= field.length(); i++) {
+            fieldTrigrams.add(field.substring(i, i + TRIGRAM));
+        }
+        int shared = 0;
+        for (String trigram : trigrams) {
+            if (fieldTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        int union = trigrams.size() + fieldTrigrams.size() - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    private static String join(Iterable<String> terms, String operator) {
+        StringBuilder expression = new StringBuilder();
+        for (String term : terms) {
+            if (expression.length() > 0) {
+                expression.append(operator);
+            }
+            expression.append('"').append(term.replace("\"", "\"\"")).append('"');
+        }
+        return expression.toString();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Ranked {
+        private final Patient patient;
+        private final int tier;
+        private final double similarity;
+
+        Ranked(Patient patient, int tier, double similarity) {
+            this.patient = patient;
+            this.tier = tier;
+            this.similarity = similarity;
+        }
+    }
+}
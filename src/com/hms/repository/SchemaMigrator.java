@@ -0,0 +1,283 @@
+package com.hms.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned schema migrations
+ * Applies every migration newer than the version recorded in the SchemaVersion
+ * table, each in its own transaction, and checks that the hot DAO queries are
+ * planned with an index.
+ */
+class SchemaMigrator {
+
+    /**
+     * One schema change, identified by an increasing version number
+     */
+    static final class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            // The admin seed password is plaintext; logins check database users through
+            // UserDAO.authenticate, which replaces it with a hash on the first successful one
+            new Migration(1, "Baseline tables and default admin user",
+                    "CREATE TABLE IF NOT EXISTS User (" +
+                    "user_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "username VARCHAR(50) NOT NULL UNIQUE, " +
+                    "password VARCHAR(255) NOT NULL, " +
+                    "full_name VARCHAR(100) NOT NULL, " +
+                    "role VARCHAR(20) NOT NULL CHECK(role IN ('ADMIN', 'DOCTOR', 'NURSE')), " +
+                    "email VARCHAR(100), " +
+                    "phone VARCHAR(20), " +
+                    "created_at DATETIME DEFAULT CURRENT_TIMESTAMP)",
+
+                    "CREATE TABLE IF NOT EXISTS Patient (" +
+                    "patient_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "first_name VARCHAR(50) NOT NULL, " +
+                    "last_name VARCHAR(50) NOT NULL, " +
+                    "date_of_birth DATE NOT NULL, " +
+                    "gender VARCHAR(10) NOT NULL CHECK(gender IN ('MALE', 'FEMALE', 'OTHER')), " +
+                    "phone VARCHAR(20), " +
+                    "email VARCHAR(100), " +
+                    "address TEXT, " +
+                    "emergency_contact VARCHAR(100), " +
+                    "emergency_phone VARCHAR(20), " +
+                    "blood_type VARCHAR(5), " +
+                    "registration_date DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "created_by INTEGER, " +
+                    "FOREIGN KEY (created_by) REFERENCES User(user_id))",
+
+                    "CREATE TABLE IF NOT EXISTS Diagnosis (" +
+                    "diagnosis_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "patient_id INTEGER NOT NULL, " +
+                    "doctor_id INTEGER NOT NULL, " +
+                    "diagnosis_date DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "symptoms TEXT, " +
+                    "diagnosis_description TEXT NOT NULL, " +
+                    "prescribed_medication TEXT, " +
+                    "notes TEXT, " +
+                    "status VARCHAR(20) DEFAULT 'ACTIVE' CHECK(status IN ('ACTIVE', 'RESOLVED', 'FOLLOW_UP')), " +
+                    "FOREIGN KEY (patient_id) REFERENCES Patient(patient_id) ON DELETE CASCADE, " +
+                    "FOREIGN KEY (doctor_id) REFERENCES User(user_id))",
+
+                    "INSERT OR IGNORE INTO User (username, password, full_name, role, email) " +
+                    "VALUES ('admin', 'admin123', 'System Administrator', 'ADMIN', 'admin@hms.com')"),
+
+            new Migration(2, "Secondary indexes declared in database_schema.sql",
+                    "CREATE INDEX IF NOT EXISTS idx_patient_name ON Patient(last_name, first_name)",
+                    "CREATE INDEX IF NOT EXISTS idx_diagnosis_patient ON Diagnosis(patient_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_diagnosis_doctor ON Diagnosis(doctor_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_user_role ON User(role)"),
+
+            new Migration(3, "Lookup index for email logins",
+                    "CREATE INDEX IF NOT EXISTS idx_user_email ON User(email COLLATE NOCASE)"),
+
+            // start_time is fixed-width ISO text, see DateTimeColumns
+            new Migration(4, "Doctor and Appointment tables",
+                    "CREATE TABLE IF NOT EXISTS Doctor (" +
+                    "doctor_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "name VARCHAR(100) NOT NULL, " +
+                    "email VARCHAR(100), " +
+                    "specialty VARCHAR(50), " +
+                    "contact VARCHAR(20), " +
+                    "availability VARCHAR(100))",
+
+                    "CREATE TABLE IF NOT EXISTS Appointment (" +
+                    "appointment_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "patient_id INTEGER NOT NULL, " +
+                    "doctor_id INTEGER NOT NULL, " +
+                    "start_time TEXT NOT NULL, " +
+                    "duration_minutes INTEGER NOT NULL DEFAULT 30 CHECK(duration_minutes > 0), " +
+                    "status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED' " +
+                    "CHECK(status IN ('SCHEDULED', 'COMPLETED', 'CANCELLED')), " +
+                    "notes TEXT, " +
+                    "FOREIGN KEY (patient_id) REFERENCES Patient(patient_id) ON DELETE CASCADE, " +
+                    "FOREIGN KEY (doctor_id) REFERENCES Doctor(doctor_id))",
+
+                    "CREATE INDEX IF NOT EXISTS idx_doctor_specialty ON Doctor(specialty)",
+                    "CREATE INDEX IF NOT EXISTS idx_appointment_start ON Appointment(start_time)",
+                    "CREATE INDEX IF NOT EXISTS idx_appointment_doctor_start ON Appointment(doctor_id, start_time)",
+                    "CREATE INDEX IF NOT EXISTS idx_appointment_patient_start ON Appointment(patient_id, start_time)",
+
+                    "INSERT INTO Doctor (name, email, specialty, contact, availability) " +
+                    "VALUES ('Dr. Smith', 'doctor@hospital.com', 'Cardiology', '1112223333', 'Mon-Fri 9-5')",
+                    "INSERT INTO Doctor (name, email, specialty, contact, availability) " +
+                    "VALUES ('Dr. Jones', 'jones@hospital.com', 'Pediatrics', '4445556666', 'Mon-Wed 9-5')"),
+
+            // External-content FTS5 index: stores only the trigram index, rows are read from Patient.
+            // Triggers keep it in sync with every write, including bulk inserts.
+            new Migration(5, "Trigram full-text index for patient search",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS PatientSearch USING fts5(" +
+                    "first_name, last_name, phone, email, emergency_contact, " +
+                    "content='Patient', content_rowid='patient_id', tokenize='trigram')",
+
+                    "CREATE TRIGGER IF NOT EXISTS patient_search_insert AFTER INSERT ON Patient BEGIN " +
+                    "INSERT INTO PatientSearch (rowid, first_name, last_name, phone, email, emergency_contact) " +
+                    "VALUES (new.patient_id, new.first_name, new.last_name, new.phone, new.email, new.emergency_contact); " +
+                    "END",
+
+                    "CREATE TRIGGER IF NOT EXISTS patient_search_delete AFTER DELETE ON Patient BEGIN " +
+                    "INSERT INTO PatientSearch (PatientSearch, rowid, first_name, last_name, phone, email, emergency_contact) " +
+                    "VALUES ('delete', old.patient_id, old.first_name, old.last_name, old.phone, old.email, old.emergency_contact); " +
+                    "END",
+
+                    "CREATE TRIGGER IF NOT EXISTS patient_search_update " +
+                    "AFTER UPDATE OF first_name, last_name, phone, email, emergency_contact ON Patient BEGIN " +
+                    "INSERT INTO PatientSearch (PatientSearch, rowid, first_name, last_name, phone, email, emergency_contact) " +
+                    "VALUES ('delete', old.patient_id, old.first_name, old.last_name, old.phone, old.email, old.emergency_contact); " +
+                    "INSERT INTO PatientSearch (rowid, first_name, last_name, phone, email, emergency_contact) " +
+                    "VALUES (new.patient_id, new.first_name, new.last_name, new.phone, new.email, new.emergency_contact); " +
+                    "END",
+
+                    // Index the patients registered before this migration
+                    "INSERT INTO PatientSearch (PatientSearch) VALUES ('rebuild')"),
+
+            // Newest-first history with diagnosis_id as tie-breaker, so keyset pages never sort;
+            // the composite index replaces the single-column one
+            new Migration(6, "Time-ordered diagnosis history indexes",
+                    "CREATE INDEX IF NOT EXISTS idx_diagnosis_patient_date " +
+                    "ON Diagnosis(patient_id, diagnosis_date DESC, diagnosis_id DESC)",
+                    "CREATE INDEX IF NOT EXISTS idx_diagnosis_status_date " +
+                    "ON Diagnosis(status, diagnosis_date DESC, diagnosis_id DESC)",
+                    "DROP INDEX IF EXISTS idx_diagnosis_patient"),
+
+            // Short search queries seek last names case-insensitively, e.g. "sm" finds "Smith"
+            // and "de" finds "de la Cruz"
+            new Migration(7, "Case-insensitive last name index",
+                    "CREATE INDEX IF NOT EXISTS idx_patient_name_nocase " +
+                    "ON Patient(last_name COLLATE NOCASE, first_name COLLATE NOCASE)")
+    );
+
+    /**
+     * Queries issued on hot paths, checked with EXPLAIN QUERY PLAN after migrating
+     */
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+    static {
+        HOT_QUERIES.put("patient by id", "SELECT * FROM Patient WHERE patient_id = ?");
+        HOT_QUERIES.put("patient first page",
+                "SELECT * FROM Patient ORDER BY last_name, first_name, patient_id LIMIT ?");
+        HOT_QUERIES.put("patient next page",
+                "SELECT * FROM Patient WHERE (last_name, first_name, patient_id) > (?, ?, ?) " +
+                "ORDER BY last_name, first_name, patient_id LIMIT ?");
+        HOT_QUERIES.put("patient offset page",
+                "SELECT * FROM Patient WHERE patient_id IN (" +
+                "SELECT patient_id FROM Patient ORDER BY last_name, first_name, patient_id LIMIT ? OFFSET ?)");
+        HOT_QUERIES.put("patient name prefix",
+                "SELECT * FROM Patient WHERE last_name >= ? COLLATE NOCASE AND last_name < ? COLLATE NOCASE " +
+                "ORDER BY last_name COLLATE NOCASE, first_name COLLATE NOCASE, patient_id LIMIT ?");
+        HOT_QUERIES.put("patient name from",
+                "SELECT * FROM Patient WHERE last_name >= ? COLLATE NOCASE " +
+                "ORDER BY last_name COLLATE NOCASE, first_name COLLATE NOCASE, patient_id LIMIT ?");
+        HOT_QUERIES.put("appointments in range",
+                "SELECT * FROM Appointment WHERE start_time >= ? AND start_time < ? ORDER BY start_time");
+        HOT_QUERIES.put("doctor schedule",
+                "SELECT * FROM Appointment WHERE doctor_id = ? AND start_time >= ? AND start_time < ? " +
+                "ORDER BY start_time");
+        HOT_QUERIES.put("diagnosis history page",
+                "SELECT * FROM Diagnosis WHERE patient_id = ? AND (diagnosis_date, diagnosis_id) < (?, ?) " +
+                "ORDER BY diagnosis_date DESC, diagnosis_id DESC LIMIT ?");
+        HOT_QUERIES.put("diagnoses by status",
+                "SELECT * FROM Diagnosis WHERE status = ? " +
+                "ORDER BY diagnosis_date DESC, diagnosis_id DESC LIMIT ?");
+        HOT_QUERIES.put("latest diagnoses",
+                "SELECT * FROM Diagnosis WHERE diagnosis_id IN (" +
+                "SELECT (SELECT d.diagnosis_id FROM Diagnosis d WHERE d.patient_id = p.patient_id " +
+                "ORDER BY d.diagnosis_date DESC, d.diagnosis_id DESC LIMIT 1) " +
+                "FROM Patient p WHERE p.patient_id IN (?, ?, ?))");
+        HOT_QUERIES.put("user by username", "SELECT * FROM User WHERE username = ?");
+        HOT_QUERIES.put("user by email", "SELECT * FROM User WHERE email = ? COLLATE NOCASE");
+    }
+
+    /**
+     * Apply all pending migrations
+     * @param conn Writable connection
+     * @return Schema version after migrating
+     * @throws SQLException if a migration fails; that migration is rolled back
+     */
+    int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS SchemaVersion (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "description TEXT NOT NULL, " +
+                    "applied_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        int current = currentVersion(conn);
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            apply(conn, migration);
+            current = migration.version;
+            System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+        }
+        return current;
+    }
+
+    /**
+     * Run EXPLAIN QUERY PLAN on the hot queries
+     * @param conn Any connection
+     * @return One warning per query that scans a table or sorts in a temporary b-tree
+     * @throws SQLException if a query cannot be explained
+     */
+    List<String> verifyQueryPlans(Connection conn) throws SQLException {
+        List<String> warnings = new ArrayList<>();
+        for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + query.getValue());
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    boolean fullScan = detail.startsWith("SCAN") && !detail.contains("USING");
+                    if (fullScan || detail.contains("USE TEMP B-TREE")) {
+                        warnings.add(query.getKey() + ": " + detail);
+                    }
+                }
+            }
+        }
+        return warnings;
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM SchemaVersion")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO SchemaVersion (version, description) VALUES (?, ?)")) {
+            for (String sql : migration.statements) {
+                stmt.execute(sql);
+            }
+            record.setInt(1, migration.version);
+            record.setString(2, migration.description);
+            record.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration.version + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
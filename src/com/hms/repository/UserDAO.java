@@ -2,6 +2,8 @@ package com.hms.repository;
 
 import com.hms.exception.DatabaseException;
 import com.hms.domain.User;
+import com.hms.security.CredentialCache;
+import com.hms.security.PasswordHasher;
 import java.sql.*;
 
 
@@ -13,20 +15,81 @@ public class UserDAO {
 	}
 
     /**
-     * Authenticate user by username and password
+     * Authenticate user by username and password.
+     * The user is looked up by username and the password checked against its
+     * salted hash; legacy plaintext passwords, such as the seeded admin account,
+     * are replaced by a hash on their first successful login.
      * @param username Username
      * @param password Password
      * @return User object if authenticated, null otherwise
      * @throws DatabaseException if database operation fails
      */
     public User authenticateUser(String username, String password) throws DatabaseException {
-        String sql = "SELECT * FROM User WHERE username = ? AND password = ?";
-        
+        return authenticate(username == null ? null : getUserByUsername(username), password);
+    }
+
+    /**
+     * Check a password against a user already looked up, upgrading a plaintext or
+     * outdated hash after a successful check. If the upgrade cannot be saved the
+     * login still succeeds and the upgrade is tried again on the next one.
+     * @param user User found by username or email, or null if none was found
+     * @param password Password
+     * @return The user if authenticated, null otherwise
+     */
+    public User authenticate(User user, String password) {
+        String stored = user != null ? user.getPassword() : null;
+        String account = user != null ? user.getUsername() : null;
+
+        if (!CredentialCache.getInstance().verify(account, password, stored)) {
+            return null;
+        }
+        if (PasswordHasher.needsRehash(stored)) {
+            String upgraded = PasswordHasher.hash(password);
+            try {
+                updatePassword(user.getUserId(), upgraded);
+                user.setPassword(upgraded);
+            } catch (DatabaseException e) {
+                System.err.println("Could not upgrade the password hash of user " + account + ": " + e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Replace a user's stored password hash
+     * @param userId User ID
+     * @param passwordHash Hash produced by PasswordHasher
+     * @return true if update successful
+     * @throws DatabaseException if database operation fails
+     */
+    public boolean updatePassword(int userId, String passwordHash) throws DatabaseException {
+        String sql = "UPDATE User SET password = ? WHERE user_id = ?";
+
         try (Connection conn = dbHandler.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, passwordHash);
+            pstmt.setInt(2, userId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating password: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get user by username
+     * @param username Username
+     * @return User object or null if not found
+     * @throws DatabaseException if database operation fails
+     */
+    public User getUserByUsername(String username) throws DatabaseException {
+        String sql = "SELECT * FROM User WHERE username = ?";
+        
+        try (Connection conn = dbHandler.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
-            pstmt.setString(2, password);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -34,25 +97,25 @@ public class UserDAO {
                 }
             }
         } catch (SQLException e) {
-            throw new DatabaseException("Error authenticating user: " + e.getMessage(), e);
+            throw new DatabaseException("Error retrieving user: " + e.getMessage(), e);
         }
         return null;
     }
 
     /**
-     * Get user by username
-     * @param username Username
+     * Get user by email, ignoring case
+     * @param email Email address
      * @return User object or null if not found
      * @throws DatabaseException if database operation fails
      */
-    public User getUserByUsername(String username) throws DatabaseException {
-        String sql = "SELECT * FROM User WHERE username = ?";
-        
-        try (Connection conn = dbHandler.getConnection();
+    public User getUserByEmail(String email) throws DatabaseException {
+        String sql = "SELECT * FROM User WHERE email = ? COLLATE NOCASE";
+
+        try (Connection conn = dbHandler.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username);
-            
+
+            pstmt.setString(1, email);
+
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return mapResultSetToUser(rs);
@@ -0,0 +1,169 @@
+package com.hms.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Short-lived cache of verified credentials in front of PasswordHasher.
+ * After a successful login, the account keeps an HMAC of the password under a
+ * key that exists only in this process; a repeated login within the TTL is
+ * checked against that HMAC instead of running PBKDF2 again. Concurrent checks
+ * of the same account and password share one PBKDF2 run, so the costly hash
+ * runs at most once per login burst. Failed checks are never cached, and an
+ * entry only matches while the stored hash is unchanged, so a password change
+ * invalidates it.
+ * The TTL is set with the system property hms.security.credentialCacheTtlSeconds.
+ */
+public final class CredentialCache {
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(
+            Long.getLong("hms.security.credentialCacheTtlSeconds", 300L));
+    private static final int MAX_ENTRIES = 10_000;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final byte[] macKey = new byte[32];
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sharedChecks = new AtomicLong();
+
+    private CredentialCache() {
+        new SecureRandom().nextBytes(macKey);
+    }
+
+    private static class Holder {
+        private static final CredentialCache INSTANCE = new CredentialCache();
+    }
+
+    public static CredentialCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Check a password, using a recent successful check of the same credentials when there is one
+     * @param account Canonical account name, e.g. the username
+     * @param password Password entered by the user
+     * @param stored Stored hash (or legacy plaintext) of the account; null for an unknown account
+     * @return true if the password matches
+     */
+    public boolean verify(String account, String password, String stored) {
+        if (account == null || password == null || stored == null) {
+            return PasswordHasher.verify(password, null);
+        }
+        byte[] digest = mac(password);
+        Entry entry = entries.get(account);
+        if (entry != null && entry.matches(stored, digest)) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+
+        String attempt = account + '\u0000' + stored + '\u0000' + Base64.getEncoder().encodeToString(digest);
+        CompletableFuture<Boolean> check = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(attempt, check);
+        if (running != null) {
+            // Same credentials are already being hashed by another login
+            sharedChecks.incrementAndGet();
+            return running.join();
+        }
+        try {
+            // A check that finished just before ours started may have filled the cache
+            entry = entries.get(account);
+            boolean verified = (entry != null && entry.matches(stored, digest))
+                    || PasswordHasher.verify(password, stored);
+            if (verified) {
+                put(account, new Entry(stored, digest, System.nanoTime() + TTL_NANOS));
+            }
+            check.complete(verified);
+            return verified;
+        } catch (RuntimeException e) {
+            check.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(attempt, check);
+        }
+    }
+
+    /**
+     * Forget an account's cached credentials, e.g. after its password changed
+     */
+    public void invalidate(String account) {
+        entries.remove(account);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Checks that waited for another login's PBKDF2 run instead of hashing themselves
+     */
+    public long getSharedChecks() {
+        return sharedChecks.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void put(String account, Entry entry) {
+        if (entries.size() >= MAX_ENTRIES) {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> e.expiresAt - now <= 0);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(account, entry);
+    }
+
+    private byte[] mac(String password) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(macKey, MAC_ALGORITHM));
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // HmacSHA256 is required of every Java platform
+            throw new IllegalStateException("Credential cache is unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Entry {
+        private final String stored;
+        private final byte[] digest;
+        private final long expiresAt;
+
+        Entry(String stored, byte[] digest, long expiresAt) {
+            this.stored = stored;
+            this.digest = Arrays.copyOf(digest, digest.length);
+            this.expiresAt = expiresAt;
+        }
+
+        boolean matches(String currentStored, byte[] candidate) {
+            return System.nanoTime() - expiresAt < 0
+                    && stored.equals(currentStored)
+                    && MessageDigest.isEqual(digest, candidate);
+        }
+    }
+}
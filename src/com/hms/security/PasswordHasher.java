@@ -0,0 +1,119 @@
+package com.hms.security;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashes.
+ * Hashes are stored as "pbkdf2$iterations$salt$hash" with Base64 salt and hash,
+ * so the cost can be raised later without invalidating existing passwords:
+ * needsRehash tells the login path to upgrade a hash after a successful check.
+ * The cost is set with the system property hms.security.pbkdf2Iterations.
+ */
+public final class PasswordHasher {
+    public static final int ITERATIONS = Integer.getInteger("hms.security.pbkdf2Iterations", 210_000);
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Verified against when the user does not exist, so that unknown usernames take as long as wrong passwords
+    private static final String DUMMY_HASH = hash("not-a-password");
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * Hash a password with a new random salt
+     * @param password Plaintext password
+     * @return Encoded hash
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return encode(ITERATIONS, salt, derive(password, salt, ITERATIONS));
+    }
+
+    /**
+     * Check a password against a stored value.
+     * Values that are not hashes are legacy plaintext passwords and are compared directly.
+     * @param password Password entered by the user
+     * @param stored Stored hash, legacy plaintext password, or null for an unknown user
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null) {
+            return false;
+        }
+        if (stored == null) {
+            verify(password, DUMMY_HASH);
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            // Malformed number or Base64
+            return false;
+        }
+    }
+
+    /**
+     * @param stored Stored password value
+     * @return true if the value is plaintext or hashed with fewer iterations than configured
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @param stored Stored password value
+     * @return true if the value is a hash produced by this class, false for legacy plaintext
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // PBKDF2WithHmacSHA256 is required of every Java platform
+            throw new IllegalStateException("Password hashing is unavailable: " + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String encode(int iterations, byte[] salt, byte[] hash) {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+}
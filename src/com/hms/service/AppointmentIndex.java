@@ -0,0 +1,210 @@
+package com.hms.service;
+
+import com.hms.domain.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes over appointments: by doctor, by patient, by day and by status.
+ * Every index is sorted by start time, so a filtered or ranged view only touches
+ * the appointments it returns.
+ *
+ * Each appointment is filed under the key it had when it was last put, so an
+ * appointment that was changed in place can be re-filed by putting it again.
+ * Writes must be serialized by the caller (DataService holds its write lock);
+ * the concurrent maps let readers query without locking.
+ */
+public class AppointmentIndex {
+    private final Map<Integer, Appointment> byId = new ConcurrentHashMap<>();
+    private final Map<Integer, Key> keys = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableMap<Key, Appointment>> byDoctor = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableMap<Key, Appointment>> byPatient = new ConcurrentHashMap<>();
+    private final NavigableMap<LocalDate, NavigableMap<Key, Appointment>> byDate = new ConcurrentSkipListMap<>();
+    // Filled for every status up front and never structurally modified afterwards
+    private final Map<Appointment.Status, NavigableMap<Key, Appointment>> byStatus = new EnumMap<>(Appointment.Status.class);
+
+    public AppointmentIndex() {
+        for (Appointment.Status status : Appointment.Status.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Add an appointment, or re-file it after its doctor, patient, time or status changed
+     * @param appointment Saved appointment with an ID
+     */
+    public void put(Appointment appointment) {
+        remove(appointment.getId());
+        Key key = new Key(appointment);
+        byId.put(key.id, appointment);
+        keys.put(key.id, key);
+        byDoctor.computeIfAbsent(key.doctorId, id -> new ConcurrentSkipListMap<>()).put(key, appointment);
+        byPatient.computeIfAbsent(key.patientId, id -> new ConcurrentSkipListMap<>()).put(key, appointment);
+        if (key.at != null) {
+            byDate.computeIfAbsent(key.at.toLocalDate(), day -> new ConcurrentSkipListMap<>()).put(key, appointment);
+        }
+        if (key.status != null) {
+            byStatus.get(key.status).put(key, appointment);
+        }
+    }
+
+    /**
+     * Remove an appointment from every index
+     * @param appointmentId Appointment ID
+     * @return The removed appointment, or null if it was not indexed
+     */
+    public Appointment remove(int appointmentId) {
+        Key key = keys.remove(appointmentId);
+        if (key == null) {
+            return null;
+        }
+        removeFrom(byDoctor, key.doctorId, key);
+        removeFrom(byPatient, key.patientId, key);
+        if (key.at != null) {
+            removeFrom(byDate, key.at.toLocalDate(), key);
+        }
+        if (key.status != null) {
+            byStatus.get(key.status).remove(key);
+        }
+        return byId.remove(appointmentId);
+    }
+
+    public Appointment get(int appointmentId) {
+        return byId.get(appointmentId);
+    }
+
+    /**
+     * @return All of a doctor's appointments, ordered by start time
+     */
+    public List<Appointment> forDoctor(int doctorId) {
+        return copy(byDoctor.get(doctorId));
+    }
+
+    /**
+     * A doctor's appointments starting in [from, to), e.g. this week's schedule
+     * @return Appointments ordered by start time
+     */
+    public List<Appointment> forDoctor(int doctorId, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<Key, Appointment> appointments = byDoctor.get(doctorId);
+        return appointments == null ? List.of() : copy(appointments.subMap(Key.first(from), Key.first(to)));
+    }
+
+    /**
+     * @return All of a patient's appointments, ordered by start time
+     */
+    public List<Appointment> forPatient(int patientId) {
+        return copy(byPatient.get(patientId));
+    }
+
+    /**
+     * @return Appointments of one day, ordered by start time
+     */
+    public List<Appointment> onDate(LocalDate date) {
+        return copy(byDate.get(date));
+    }
+
+    /**
+     * @param from First day, inclusive
+     * @param to Last day, exclusive
+     * @return Appointments of the days in [from, to), ordered by start time
+     */
+    public List<Appointment> between(LocalDate from, LocalDate to) {
+        List<Appointment> appointments = new ArrayList<>();
+        for (NavigableMap<Key, Appointment> day : byDate.subMap(from, to).values()) {
+            appointments.addAll(day.values());
+        }
+        return appointments;
+    }
+
+    /**
+     * @return Appointments with the status, ordered by start time
+     */
+    public List<Appointment> withStatus(Appointment.Status status) {
+        return copy(byStatus.get(status));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableMap<Key, Appointment>> index, K group, Key key) {
+        NavigableMap<Key, Appointment> appointments = index.get(group);
+        if (appointments != null) {
+            appointments.remove(key);
+            if (appointments.isEmpty()) {
+                index.remove(group);
+            }
+        }
+    }
+
+    private static List<Appointment> copy(Map<Key, Appointment> appointments) {
+        return appointments == null ? List.of() : new ArrayList<>(appointments.values());
+    }
+
+    /**
+     * The indexed fields of an appointment at the time it was put; ordered by start time, then ID
+     */
+    private static final class Key implements Comparable<Key> {
+        private final LocalDateTime at;
+        private final int id;
+        private final int doctorId;
+        private final int patientId;
+        private final Appointment.Status status;
+
+        Key(Appointment appointment) {
+            this(appointment.getScheduledAt(), appointment.getId(), appointment.getDoctorId(),
+                    appointment.getPatientId(), appointment.getStatus());
+        }
+
+        private Key(LocalDateTime at, int id, int doctorId, int patientId, Appointment.Status status) {
+            this.at = at;
+            this.id = id;
+            this.doctorId = doctorId;
+            this.patientId = patientId;
+            this.status = status;
+        }
+
+        /**
+         * Lower bound for range queries: sorts before every appointment starting at that time
+         */
+        static Key first(LocalDateTime at) {
+            return new Key(at, Integer.MIN_VALUE, 0, 0, null);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            // Unscheduled appointments sort first
+            if (at != other.at) {
+                if (at == null) {
+                    return -1;
+                }
+                if (other.at == null) {
+                    return 1;
+                }
+                int byTime = at.compareTo(other.at);
+                if (byTime != 0) {
+                    return byTime;
+                }
+            }
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && compareTo((Key) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (at == null ? 0 : at.hashCode()) + id;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.hms.service;
+
+import com.hms.domain.Appointment;
+import com.hms.domain.Doctor;
+import com.hms.domain.WeeklySchedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-doctor interval index over booked appointments.
+ * Each doctor's active appointments are kept in a map sorted by start time.
+ * Booked intervals never overlap, so they are sorted by end time as well, and
+ * the last booking starting before end is the only one that can reach past
+ * start: a conflict check is a single O(log n) lookup.
+ * Bookings are also rasterized into per-day bitsets of WeeklySchedule slots,
+ * so free time for a day is the doctor's working slots minus the booked ones,
+ * computed with a couple of word-wide bitset operations.
+ *
+ * Thread safety: writes are expected to be serialized by the caller (DataService
+ * holds its write lock); the skip-list maps let readers query without locking.
+ */
+public class AppointmentScheduler {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final BitSet EMPTY_SLOTS = new BitSet(WeeklySchedule.SLOTS_PER_DAY);
+
+    private final Map<Integer, NavigableMap<LocalDateTime, Appointment>> bookingsByDoctor = new ConcurrentHashMap<>();
+    // Booked copy of each saved appointment, by ID
+    private final Map<Integer, Appointment> booked = new ConcurrentHashMap<>();
+    // Booked slots per doctor and day; each bitset is immutable once published
+    private final Map<Integer, Map<LocalDate, BitSet>> bookedSlotsByDoctor = new ConcurrentHashMap<>();
+    // Doctors by case-folded specialty; copy-on-write lists
+    private final Map<String, List<Doctor>> doctorsBySpecialty = new ConcurrentHashMap<>();
+
+    /**
+     * Make a doctor known to the specialty lookups
+     * @param doctor Saved doctor
+     */
+    public void registerDoctor(Doctor doctor) {
+        bookings(doctor.getId());
+        if (doctor.getSpecialty() != null) {
+            doctorsBySpecialty.merge(specialtyKey(doctor.getSpecialty()), List.of(doctor), (current, added) -> {
+                List<Doctor> next = new ArrayList<>(current);
+                next.addAll(added);
+                return Collections.unmodifiableList(next);
+            });
+        }
+    }
+
+    /**
+     * Find the booking that overlaps an appointment
+     * @param appointment Appointment to check; a booking with the same ID is ignored
+     * @return Conflicting booking or null if the doctor is free
+     */
+    public Appointment findConflict(Appointment appointment) {
+        return findConflict(appointment.getDoctorId(), appointment.getScheduledAt(),
+                appointment.getDurationMinutes(), appointment.getId());
+    }
+
+    /**
+     * @param doctorId Doctor ID
+     * @param start Start of the interval
+     * @param durationMinutes Length of the interval
+     * @return true if the doctor has no booking overlapping [start, start + duration)
+     */
+    public boolean isFree(int doctorId, LocalDateTime start, int durationMinutes) {
+        return findConflict(doctorId, start, durationMinutes, 0) == null;
+    }
+
+    /**
+     * Record an active appointment; cancelled and completed ones are ignored.
+     * Bookings are keyed by start time and must not overlap, so an appointment
+     * that findConflict rejects must never be booked.
+     * @param appointment Appointment that passed findConflict
+     */
+    public void book(Appointment appointment) {
+        if (appointment.isActive()) {
+            // Index a copy, so an appointment edited in place can still be released under its booked time
+            if (appointment.getId() != 0) {
+                appointment = snapshot(appointment);
+                booked.put(appointment.getId(), appointment);
+            }
+            bookings(appointment.getDoctorId()).put(appointment.getScheduledAt(), appointment);
+            Map<LocalDate, BitSet> bookedSlots = bookedSlots(appointment.getDoctorId());
+            for (LocalDate day = appointment.getDate(); !day.atStartOfDay().isAfter(lastMinute(appointment));
+                    day = day.plusDays(1)) {
+                BitSet slots = (BitSet) bookedSlots.getOrDefault(day, EMPTY_SLOTS).clone();
+                mark(slots, day, appointment);
+                bookedSlots.put(day, slots);
+            }
+        }
+    }
+
+    /**
+     * Free the interval held by an appointment
+     * @param appointment Previously booked appointment; saved ones are found by ID even if they changed since
+     */
+    public void release(Appointment appointment) {
+        Appointment snapshot = booked.remove(appointment.getId());
+        if (snapshot != null) {
+            appointment = snapshot;
+        }
+        NavigableMap<LocalDateTime, Appointment> bookings = bookingsByDoctor.get(appointment.getDoctorId());
+        if (bookings != null && appointment.getScheduledAt() != null
+                && removeBooking(bookings, appointment)) {
+            // Neighbouring bookings may share a partly used slot, so redraw the days instead of clearing bits
+            for (LocalDate day = appointment.getDate(); !day.atStartOfDay().isAfter(lastMinute(appointment));
+                    day = day.plusDays(1)) {
+                redraw(appointment.getDoctorId(), bookings, day);
+            }
+        }
+    }
+
+    /**
+     * Earliest start at or after from at which the doctor is free for the whole duration.
+     * Jumps from the end of one booking to the next gap, so it only visits the
+     * bookings in the busy run that follows from.
+     * @param doctorId Doctor ID
+     * @param from Earliest acceptable start
+     * @param durationMinutes Length of the appointment
+     * @return Start of the first gap that fits
+     */
+    public LocalDateTime nextFreeSlot(int doctorId, LocalDateTime from, int durationMinutes) {
+        NavigableMap<LocalDateTime, Appointment> bookings = bookingsByDoctor.get(doctorId);
+        if (bookings == null) {
+            return from;
+        }
+        LocalDateTime candidate = from;
+        Map.Entry<LocalDateTime, Appointment> before = bookings.lowerEntry(from);
+        if (before != null && before.getValue().getEndsAt().isAfter(candidate)) {
+            candidate = before.getValue().getEndsAt();
+        }
+        for (Appointment booked : bookings.tailMap(candidate, true).values()) {
+            if (!candidate.plusMinutes(durationMinutes).isAfter(booked.getScheduledAt())) {
+                break;
+            }
+            if (booked.getEndsAt().isAfter(candidate)) {
+                candidate = booked.getEndsAt();
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Doctors of a specialty with no booking overlapping [time, time + duration)
+     * @param specialty Specialty, ignoring case
+     * @param time Start of the interval
+     * @param durationMinutes Length of the interval
+     * @return Free doctors, in registration order
+     */
+    public List<Doctor> freeDoctors(String specialty, LocalDateTime time, int durationMinutes) {
+        List<Doctor> free = new ArrayList<>();
+        for (Doctor doctor : doctorsOf(specialty)) {
+            if (isFree(doctor.getId(), time, durationMinutes)) {
+                free.add(doctor);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Free time on one day across all doctors of a specialty: each doctor's
+     * working slots with the booked slots removed
+     * @param specialty Specialty, ignoring case
+     * @param date Day to search
+     * @param durationMinutes Shortest gap worth returning
+     * @return Free ranges, grouped by doctor in registration order and sorted by start
+     */
+    public List<FreeSlot> freeSlots(String specialty, LocalDate date, int durationMinutes) {
+        int minSlots = WeeklySchedule.slotsUntil(durationMinutes);
+        List<FreeSlot> free = new ArrayList<>();
+        for (Doctor doctor : doctorsOf(specialty)) {
+            BitSet slots = doctor.getSchedule().slotsOn(date);
+            Map<LocalDate, BitSet> bookedSlots = bookedSlotsByDoctor.get(doctor.getId());
+            if (bookedSlots != null) {
+                slots.andNot(bookedSlots.getOrDefault(date, EMPTY_SLOTS));
+            }
+            for (int start = slots.nextSetBit(0); start >= 0; start = slots.nextSetBit(start)) {
+                int end = slots.nextClearBit(start);
+                if (end - start >= minSlots) {
+                    free.add(new FreeSlot(doctor, slotStart(date, start), slotStart(date, end)));
+                }
+                start = end;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @param specialty Specialty, ignoring case
+     * @return Registered doctors of that specialty; immutable
+     */
+    public List<Doctor> doctorsOf(String specialty) {
+        if (specialty == null) {
+            return List.of();
+        }
+        return doctorsBySpecialty.getOrDefault(specialtyKey(specialty), List.of());
+    }
+
+    /**
+     * @param doctorId Doctor ID
+     * @return Number of active bookings indexed for the doctor
+     */
+    public int bookingCount(int doctorId) {
+        NavigableMap<LocalDateTime, Appointment> bookings = bookingsByDoctor.get(doctorId);
+        return bookings == null ? 0 : bookings.size();
+    }
+
+    private Appointment findConflict(int doctorId, LocalDateTime start, int durationMinutes, int ignoredId) {
+        NavigableMap<LocalDateTime, Appointment> bookings = bookingsByDoctor.get(doctorId);
+        if (bookings == null || start == null) {
+            return null;
+        }
+        LocalDateTime end = start.plusMinutes(durationMinutes);
+        // Latest booking starting before our end; earlier ones end no later than it starts
+        Map.Entry<LocalDateTime, Appointment> candidate = bookings.lowerEntry(end);
+        while (candidate != null) {
+            Appointment booked = candidate.getValue();
+            if (!booked.getEndsAt().isAfter(start)) {
+                return null;
+            }
+            if (booked.getId() == 0 || booked.getId() != ignoredId) {
+                return booked;
+            }
+            // Rescheduling: the booking being moved does not conflict with itself
+            candidate = bookings.lowerEntry(candidate.getKey());
+        }
+        return null;
+    }
+
+    private static boolean removeBooking(NavigableMap<LocalDateTime, Appointment> bookings, Appointment appointment) {
+        Appointment current = bookings.get(appointment.getScheduledAt());
+        boolean same = current != null && (current == appointment
+                || (appointment.getId() != 0 && current.getId() == appointment.getId()));
+        return same && bookings.remove(appointment.getScheduledAt(), current);
+    }
+
+    private static Appointment snapshot(Appointment appointment) {
+        Appointment copy = new Appointment(appointment.getId(), appointment.getPatientId(), appointment.getDoctorId(),
+                appointment.getPatientName(), appointment.getDoctorName(), appointment.getScheduledAt(),
+                appointment.getStatus(), appointment.getNotes());
+        copy.setDurationMinutes(appointment.getDurationMinutes());
+        return copy;
+    }
+
+    private void redraw(int doctorId, NavigableMap<LocalDateTime, Appointment> bookings, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        BitSet slots = new BitSet(WeeklySchedule.SLOTS_PER_DAY);
+        // Only the last booking before midnight can run into the day
+        Map.Entry<LocalDateTime, Appointment> before = bookings.lowerEntry(dayStart);
+        if (before != null) {
+            mark(slots, day, before.getValue());
+        }
+        for (Appointment booked : bookings.subMap(dayStart, day.plusDays(1).atStartOfDay()).values()) {
+            mark(slots, day, booked);
+        }
+        bookedSlots(doctorId).put(day, slots);
+    }
+
+    /**
+     * Set the slots of one day touched by an appointment
+     */
+    private static void mark(BitSet slots, LocalDate day, Appointment appointment) {
+        long dayStart = day.toEpochDay() * MINUTES_PER_DAY;
+        long start = appointment.getDate().toEpochDay() * MINUTES_PER_DAY
+                + appointment.getScheduledAt().toLocalTime().toSecondOfDay() / 60;
+        long end = start + appointment.getDurationMinutes();
+        int from = (int) Math.max(0, start - dayStart) / WeeklySchedule.SLOT_MINUTES;
+        int to = WeeklySchedule.slotsUntil((int) Math.min(MINUTES_PER_DAY, end - dayStart));
+        if (from < to) {
+            slots.set(from, to);
+        }
+    }
+
+    private static LocalDateTime lastMinute(Appointment appointment) {
+        return appointment.getEndsAt().minusMinutes(1);
+    }
+
+    private static LocalDateTime slotStart(LocalDate date, int slot) {
+        return date.atStartOfDay().plusMinutes((long) slot * WeeklySchedule.SLOT_MINUTES);
+    }
+
+    private Map<LocalDate, BitSet> bookedSlots(int doctorId) {
+        return bookedSlotsByDoctor.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>());
+    }
+
+    private NavigableMap<LocalDateTime, Appointment> bookings(int doctorId) {
+        return bookingsByDoctor.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private static String specialtyKey(String specialty) {
+        return specialty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A free range of one doctor's time
+     */
+    public static class FreeSlot {
+        private final Doctor doctor;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        public FreeSlot(Doctor doctor, LocalDateTime start, LocalDateTime end) {
+            this.doctor = doctor;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Doctor getDoctor() {
+            return doctor;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return doctor.getName() + " " + start + " - " + end;
+        }
+    }
+}
@@ -2,74 +2,400 @@ package com.hms.service;
 
 import com.hms.domain.*;
 import com.hms.domain.User.Role;
+import com.hms.event.ChangeEvent;
+import com.hms.event.ChangeEventBus;
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+import com.hms.repository.AppointmentDAO;
+import com.hms.repository.DoctorDAO;
+import com.hms.repository.EntityCounters;
+import com.hms.repository.PatientDAO;
+import com.hms.repository.UserDAO;
+import com.hms.security.CredentialCache;
+import com.hms.security.PasswordHasher;
 
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 
+/**
+ * In-memory store for users, patients, doctors and appointments.
+ * Each collection keeps its insertion-ordered list for the table views plus
+ * hash indexes for constant-time logins and by-id lookups. Doctors and
+ * appointments are loaded from the database on startup and written through
+ * their DAOs, so this store only caches them.
+ *
+ * Thread safety: mutations are serialized on a single write lock. Lists are
+ * immutable snapshots replaced on every write (copy-on-write) and published
+ * through volatile fields, and the indexes are concurrent maps, so readers
+ * never lock and can iterate a list while another thread adds to the store.
+ */
 public class DataService {
-    private static DataService instance;
-    private List<User> users;
-    private List<Patient> patients;
-    private List<Doctor> doctors;
-    private List<Appointment> appointments;
-
-    public DataService() {
-        users = new ArrayList<>();
-        patients = new ArrayList<>();
-        doctors = new ArrayList<>();
-        appointments = new ArrayList<>();
-        
+    private final Object writeLock = new Object();
+
+    private volatile List<User> users = List.of();
+    private volatile List<Patient> patients = List.of();
+    private volatile List<Doctor> doctors = List.of();
+    private volatile List<Appointment> appointments = List.of();
+
+    // Hash indexes; user keys are case-folded so logins stay case-insensitive
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, Patient> patientsById = new ConcurrentHashMap<>();
+    private final Map<Integer, Doctor> doctorsById = new ConcurrentHashMap<>();
+
+    private final DoctorDAO doctorDAO = new DoctorDAO();
+    private final AppointmentDAO appointmentDAO = new AppointmentDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final AppointmentScheduler scheduler = new AppointmentScheduler();
+    private final AppointmentIndex appointmentIndex = new AppointmentIndex();
+
+    // Only the holder creates the store: the constructor seeds data and records the seed revenue
+    private DataService() {
         // Seed data
-        users.add(new User("semeh","123456","mechi",Role.ADMIN));
-        users.add(new User("khalil", "111111","dali" ,Role.ADMIN));
+        addUser(new User("semeh","123456","mechi",Role.ADMIN));
+        addUser(new User("khalil", "111111","dali" ,Role.ADMIN));
         
-        patients.add(new Patient());
-        patients.add(new Patient());
+        addPatient(new Patient());
+        addPatient(new Patient());
+
+        loadPersisted();
 
-        doctors.add(new Doctor("1", "Dr. Smith", "doctor@hospital.com", "Cardiology", "1112223333", "Mon-Fri 9-5"));
-        doctors.add(new Doctor("2", "Dr. Jones", "jones@hospital.com", "Pediatrics", "4445556666", "Mon-Wed 9-5"));
+        // Placeholder revenue until billing exists
+        EntityCounters.getInstance().revenueRecorded(15000);
+        rebuildStatistics();
+    }
 
-        appointments.add(new Appointment("1", "1", "1", "John Doe", "Dr. Smith", "2023-10-20", "10:00", "Scheduled", "Routine Checkup"));
+    // Initialization-on-demand holder: lazy, and safely published without locking
+    private static class Holder {
+        private static final DataService INSTANCE = new DataService();
     }
 
     public static DataService getInstance() {
-        if (instance == null) {
-            instance = new DataService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
-     * Simple in-memory authentication.
-     * The identifier can be either username or email, and the password must match.
+     * Authenticate a user of the database or of this store.
+     * The identifier can be either username or email. Database users are checked
+     * first, through UserDAO, which upgrades their stored passwords; users only
+     * known to this store are checked next, and also when the database cannot be
+     * read. The password must match the user's salted hash; repeated logins are
+     * checked through CredentialCache, and a hash made with fewer iterations than
+     * configured is replaced after a successful login.
      */
     public User authenticate(String identifier, String password) {
-        return users.stream()
-                .filter(u ->
-                        (u.getUsername() != null && u.getUsername().equalsIgnoreCase(identifier)) ||
-                        (u.getEmail() != null && u.getEmail().equalsIgnoreCase(identifier)))
-                .filter(u -> u.getPassword() != null && u.getPassword().equals(password))
-                .findFirst()
-                .orElse(null);
+        if (identifier == null || password == null) {
+            return null;
+        }
+        User stored = findDatabaseUser(identifier);
+        if (stored != null) {
+            return userDAO.authenticate(stored, password);
+        }
+
+        User user = findUser(identifier);
+        String account = user == null ? null
+                : foldCase(user.getUsername() != null ? user.getUsername() : user.getEmail());
+        String hash = user != null ? user.getPassword() : null;
+        if (!CredentialCache.getInstance().verify(account, password, hash)) {
+            return null;
+        }
+        if (PasswordHasher.needsRehash(hash)) {
+            // Hash outside the lock, it is slow; a password changed meanwhile is kept
+            String upgraded = PasswordHasher.hash(password);
+            synchronized (writeLock) {
+                if (hash.equals(user.getPassword())) {
+                    user.setPassword(upgraded);
+                }
+            }
+        }
+        return user;
     }
 
+    private User findDatabaseUser(String identifier) {
+        try {
+            User user = userDAO.getUserByUsername(identifier);
+            return user != null || identifier.indexOf('@') < 0 ? user : userDAO.getUserByEmail(identifier);
+        } catch (DatabaseException e) {
+            System.err.println("Could not read database users, checking in-memory users only: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot of all users; the returned list is immutable and never changes afterwards
+     */
+    public List<User> getUsers() { return users; }
+    /**
+     * Add a user; a plaintext password is replaced by its hash first
+     */
+    public void addUser(User user) {
+        if (user.getPassword() != null && !PasswordHasher.isHashed(user.getPassword())) {
+            user.setPassword(PasswordHasher.hash(user.getPassword()));
+        }
+        synchronized (writeLock) {
+            if (user.getUsername() != null) {
+                usersByUsername.putIfAbsent(foldCase(user.getUsername()), user);
+            }
+            if (user.getEmail() != null) {
+                usersByEmail.putIfAbsent(foldCase(user.getEmail()), user);
+            }
+            users = append(users, List.of(user));
+        }
+    }
+
+    /**
+     * Find a user by username or email, ignoring case
+     * @param identifier Username or email
+     * @return User or null if not found
+     */
+    public User findUser(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        String key = foldCase(identifier);
+        User user = usersByUsername.get(key);
+        return user != null ? user : usersByEmail.get(key);
+    }
+
+    /**
+     * Snapshot of all patients; the returned list is immutable and never changes afterwards
+     */
     public List<Patient> getPatients() { return patients; }
-    public void addPatient(Patient patient) { patients.add(patient); }
+    public void addPatient(Patient patient) {
+        addPatients(List.of(patient));
+    }
+    /**
+     * Add several patients with a single copy of the patient list
+     */
+    public void addPatients(Collection<Patient> added) {
+        synchronized (writeLock) {
+            for (Patient patient : added) {
+                // Unsaved patients have no ID yet and are only listed, not indexed
+                if (patient.getPatientId() != 0) {
+                    patientsById.put(patient.getPatientId(), patient);
+                }
+            }
+            patients = append(patients, added);
+        }
+    }
+    public Patient getPatientById(int patientId) { return patientsById.get(patientId); }
 
+    /**
+     * Snapshot of all doctors; the returned list is immutable and never changes afterwards
+     */
     public List<Doctor> getDoctors() { return doctors; }
-    public void addDoctor(Doctor doctor) { doctors.add(doctor); }
+    /**
+     * Save a doctor and add it to the store
+     * @param doctor Doctor to save; its ID is set from the database
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails
+     */
+    public void addDoctor(Doctor doctor) throws DatabaseException, ValidationException {
+        synchronized (writeLock) {
+            doctorDAO.insertDoctor(doctor);
+            doctorsById.put(doctor.getId(), doctor);
+            scheduler.registerDoctor(doctor);
+            doctors = append(doctors, List.of(doctor));
+            publish(ChangeEvent.Entity.DOCTOR, ChangeEvent.Operation.INSERT, doctor.getId());
+        }
+    }
+    public Doctor getDoctorById(int doctorId) { return doctorsById.get(doctorId); }
 
+    /**
+     * Snapshot of all appointments; the returned list is immutable and never changes afterwards
+     */
     public List<Appointment> getAppointments() { return appointments; }
-    public void addAppointment(Appointment appointment) { appointments.add(appointment); }
+    /**
+     * Save an appointment and add it to the store
+     * @param appointment Appointment to save; its ID is set from the database
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails or the doctor is already booked at that time
+     */
+    public void addAppointment(Appointment appointment) throws DatabaseException, ValidationException {
+        synchronized (writeLock) {
+            if (appointment.isActive()) {
+                checkConflict(appointment);
+            }
+            appointmentDAO.insertAppointment(appointment);
+            scheduler.book(appointment);
+            appointmentIndex.put(appointment);
+            appointments = append(appointments, List.of(appointment));
+            publish(ChangeEvent.Entity.APPOINTMENT, ChangeEvent.Operation.INSERT, appointment.getId());
+        }
+    }
+    /**
+     * Save changes to an appointment and re-index it.
+     * Prefer editing a copy: the cached instance is only replaced once the database update succeeds.
+     * @param appointment Appointment with the ID of a stored one
+     * @throws DatabaseException if database operation fails
+     * @throws ValidationException if validation fails, the appointment does not exist or the new time conflicts
+     */
+    public void updateAppointment(Appointment appointment) throws DatabaseException, ValidationException {
+        synchronized (writeLock) {
+            Appointment existing = appointmentIndex.get(appointment.getId());
+            if (existing == null) {
+                throw new ValidationException("Appointment " + appointment.getId() + " does not exist.");
+            }
+            if (appointment.isActive()) {
+                checkConflict(appointment);
+            }
+            if (!appointmentDAO.updateAppointment(appointment)) {
+                throw new ValidationException("Appointment " + appointment.getId() + " does not exist.");
+            }
+            scheduler.release(existing);
+            scheduler.book(appointment);
+            appointmentIndex.put(appointment);
+            if (existing != appointment) {
+                appointments = replace(appointments, existing, appointment);
+            }
+            publish(ChangeEvent.Entity.APPOINTMENT, ChangeEvent.Operation.UPDATE, appointment.getId());
+        }
+    }
+    public Appointment getAppointmentById(int appointmentId) { return appointmentIndex.get(appointmentId); }
+
+    /**
+     * A doctor's appointments starting in [from, to), ordered by start time; e.g. this week's schedule
+     */
+    public List<Appointment> getAppointmentsForDoctor(int doctorId, LocalDateTime from, LocalDateTime to) {
+        return appointmentIndex.forDoctor(doctorId, from, to);
+    }
+    public List<Appointment> getAppointmentsForDoctor(int doctorId) { return appointmentIndex.forDoctor(doctorId); }
+    public List<Appointment> getAppointmentsForPatient(int patientId) { return appointmentIndex.forPatient(patientId); }
+    public List<Appointment> getAppointmentsOn(LocalDate date) { return appointmentIndex.onDate(date); }
+    public List<Appointment> getAppointmentsByStatus(Appointment.Status status) { return appointmentIndex.withStatus(status); }
+
+    /**
+     * Earliest time at or after from when a doctor is free for the given duration
+     */
+    public LocalDateTime findNextFreeSlot(int doctorId, LocalDateTime from, int durationMinutes) {
+        return scheduler.nextFreeSlot(doctorId, from, durationMinutes);
+    }
+
+    /**
+     * Doctors of a specialty who have no appointment overlapping [time, time + duration)
+     */
+    public List<Doctor> findFreeDoctors(String specialty, LocalDateTime time, int durationMinutes) {
+        return scheduler.freeDoctors(specialty, time, durationMinutes);
+    }
+
+    /**
+     * Free time on a day across all doctors of a specialty, from their weekly schedules minus booked appointments
+     */
+    public List<AppointmentScheduler.FreeSlot> findFreeSlots(String specialty, LocalDate date, int durationMinutes) {
+        return scheduler.freeSlots(specialty, date, durationMinutes);
+    }
+
+    private void checkConflict(Appointment appointment) throws ValidationException {
+        Appointment conflict = scheduler.findConflict(appointment);
+        if (conflict != null) {
+            throw new ValidationException("The doctor already has an appointment from "
+                    + conflict.getScheduledAt().toLocalTime() + " to " + conflict.getEndsAt().toLocalTime()
+                    + " on " + conflict.getDate() + ".");
+        }
+    }
     
+    /**
+     * Snapshot of the running dashboard counters; never scans a table
+     */
     public DashboardStats getStats() {
-        // Mock stats
-        return new DashboardStats(patients.size(), doctors.size(), appointments.size(), 15000);
+        EntityCounters counters = EntityCounters.getInstance();
+        return new DashboardStats(counters.getPatients(), counters.getDoctors(),
+                counters.getActiveAppointments(), counters.getRevenue());
+    }
+
+    /**
+     * Recount the dashboard statistics from the database
+     */
+    public void rebuildStatistics() {
+        EntityCounters counters = EntityCounters.getInstance();
+        try {
+            counters.rebuild(new PatientDAO().countPatients(), doctorDAO.countDoctors(),
+                    appointmentDAO.countActiveAppointments());
+        } catch (DatabaseException e) {
+            System.err.println("Error recounting statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fill the doctor and appointment caches from the database
+     */
+    private void loadPersisted() {
+        try {
+            List<Doctor> loadedDoctors = doctorDAO.getAllDoctors();
+            List<Appointment> loadedAppointments = appointmentDAO.getAllAppointments();
+            synchronized (writeLock) {
+                for (Doctor doctor : loadedDoctors) {
+                    doctorsById.put(doctor.getId(), doctor);
+                    scheduler.registerDoctor(doctor);
+                }
+                for (Appointment appointment : loadedAppointments) {
+                    appointmentIndex.put(appointment);
+                    // Rows saved before overlaps were checked may double-book a doctor. Booking them
+                    // would break the scheduler's non-overlapping index, so they stay listed but unbooked
+                    Appointment conflict = appointment.isActive() ? scheduler.findConflict(appointment) : null;
+                    if (conflict != null) {
+                        System.err.println("Appointment " + appointment.getId() + " overlaps appointment "
+                                + conflict.getId() + " of doctor " + appointment.getDoctorId()
+                                + " at " + conflict.getScheduledAt() + "; it is not booked until rescheduled.");
+                    } else {
+                        scheduler.book(appointment);
+                    }
+                }
+                doctors = append(doctors, loadedDoctors);
+                appointments = append(appointments, loadedAppointments);
+            }
+        } catch (DatabaseException e) {
+            System.err.println("Error loading doctors and appointments: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
     
+    /**
+     * Announce a change once the in-memory state shows it; called under the write lock,
+     * so that event versions follow the order of the writes
+     */
+    private static void publish(ChangeEvent.Entity entity, ChangeEvent.Operation operation, int id) {
+        ChangeEventBus.getInstance().publish(entity, operation, id);
+    }
+
+    /**
+     * Copy-on-write append: build the next immutable snapshot of a list
+     */
+    private static <T> List<T> append(List<T> current, Collection<? extends T> added) {
+        List<T> next = new ArrayList<>(current.size() + added.size());
+        next.addAll(current);
+        next.addAll(added);
+        return Collections.unmodifiableList(next);
+    }
+
+    /**
+     * Copy-on-write replace: build the next immutable snapshot with one element swapped
+     */
+    private static <T> List<T> replace(List<T> current, T existing, T replacement) {
+        List<T> next = new ArrayList<>(current);
+        int index = next.indexOf(existing);
+        if (index >= 0) {
+            next.set(index, replacement);
+        } else {
+            next.add(replacement);
+        }
+        return Collections.unmodifiableList(next);
+    }
+
+    private static String foldCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
     // Inner class for stats if not defined elsewhere
     public static class DashboardStats {
         public int totalPatients;
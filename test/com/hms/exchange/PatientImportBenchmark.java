@@ -0,0 +1,132 @@
+package com.hms.exchange;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.hms.exception.DatabaseException;
+import com.hms.exception.ValidationException;
+
+/**
+ * Throughput of PatientImporter on a registry extract of a million rows.
+ * A CSV with a header like a TableExporter export is generated in a temporary
+ * directory; every hundredth row is corrupted in one of several ways
+ * (a missing field, an unparsable or future date of birth, an unknown gender,
+ * a blank last name), and blank lines and quoted fields with commas and line
+ * breaks are mixed in. The file is imported into a new database and the
+ * ImportResult is printed. Exits with status 1 if the rows inserted and
+ * rejected differ from the rows generated.
+ *
+ * DBHandler creates hms_database.db in the working directory, so run it from
+ * an empty scratch directory; it refuses to run where a database already exists.
+ * Run with: java com.hms.exchange.PatientImportBenchmark [rows] [workers] [transactionRows]
+ */
+public class PatientImportBenchmark {
+    private static final String DATABASE_FILE = "hms_database.db";
+    private static final int CORRUPT_EVERY = 100;
+    private static final String[] GENDERS = { "MALE", "FEMALE", "OTHER" };
+    private static final String[] BLOOD_TYPES = { "A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-" };
+    private static final LocalDate FIRST_BIRTH = LocalDate.of(1930, 1, 1);
+
+    public static void main(String[] args) throws IOException, ValidationException, DatabaseException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        int transactionRows = args.length > 2 ? Integer.parseInt(args[2]) : PatientImporter.DEFAULT_TRANSACTION_ROWS;
+
+        if (Files.exists(Path.of(DATABASE_FILE))) {
+            System.err.println("A " + DATABASE_FILE + " exists in the working directory; run from an empty directory.");
+            System.exit(1);
+        }
+
+        Path directory = Files.createTempDirectory("hms-import-");
+        Path source = directory.resolve("patients.csv");
+        long start = System.nanoTime();
+        int corrupted = generate(source, rows);
+        System.out.println(String.format("Generated %,d rows (%,d corrupted, %,d MB) in %.1f s: %s",
+                rows, corrupted, Files.size(source) >> 20, (System.nanoTime() - start) / 1e9, source));
+
+        ImportResult result = new PatientImporter(workers, transactionRows).importPatients(source);
+        System.out.println(result);
+        System.out.println(String.format("%,.0f rows/s with %d workers, %,d rows per transaction",
+                result.getRowsPerSecond(), workers, transactionRows));
+
+        if (result.getRowsRead() != rows || result.getRejected() != corrupted
+                || result.getInserted() != rows - corrupted) {
+            System.err.println("FAILED: expected " + rows + " rows read, " + (rows - corrupted) + " inserted and "
+                    + corrupted + " rejected");
+            System.exit(1);
+        }
+        Files.delete(source);
+        Files.delete(result.getRejectsReport());
+        Files.delete(directory);
+        System.exit(0);
+    }
+
+    /**
+     * Write the CSV file
+     * @return Number of corrupted rows, each of which the import must reject
+     */
+    private static int generate(Path source, int rows) throws IOException {
+        Random random = new Random(11);
+        int corrupted = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(source, StandardCharsets.UTF_8)) {
+            out.write("patient_id,first_name,last_name,date_of_birth,gender,phone,email,address,"
+                    + "emergency_contact,emergency_phone,blood_type,registration_date,created_by\r\n");
+            for (int i = 1; i <= rows; i++) {
+                String[] fields = {
+                        Integer.toString(i),
+                        "First" + i,
+                        "Last" + random.nextInt(50_000),
+                        FIRST_BIRTH.plusDays(random.nextInt(30_000)).toString(),
+                        GENDERS[random.nextInt(GENDERS.length)],
+                        String.format("555%07d", random.nextInt(10_000_000)),
+                        "patient" + i + "@example.com",
+                        i % 7 == 0 ? "\"" + i + " Main St, Apt 2\r\nSpringfield\"" : i + " Main St",
+                        "Contact " + i,
+                        String.format("555%07d", random.nextInt(10_000_000)),
+                        BLOOD_TYPES[random.nextInt(BLOOD_TYPES.length)],
+                        "2024-01-01 08:00:00",
+                        "1"
+                };
+                if (i % CORRUPT_EVERY == 0) {
+                    fields = corrupt(fields, i / CORRUPT_EVERY);
+                    corrupted++;
+                }
+                out.write(String.join(",", fields));
+                out.write("\r\n");
+                if (i % 1000 == 0) {
+                    out.write("\r\n");
+                }
+            }
+        }
+        return corrupted;
+    }
+
+    /**
+     * @return The fields of a row the import must reject
+     */
+    private static String[] corrupt(String[] fields, int kind) {
+        switch (kind % 5) {
+            case 0:
+                return Arrays.copyOf(fields, fields.length - 1);
+            case 1:
+                fields[3] = "31/12/1980";
+                break;
+            case 2:
+                fields[3] = LocalDate.now().plusYears(1).toString();
+                break;
+            case 3:
+                fields[4] = "UNKNOWN";
+                break;
+            default:
+                fields[2] = " ";
+        }
+        return fields;
+    }
+}
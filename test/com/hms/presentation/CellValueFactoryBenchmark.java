@@ -0,0 +1,79 @@
+package com.hms.presentation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import com.hms.domain.Patient;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Callback;
+
+/**
+ * Microbenchmark of the patient table's cell value factories: the reflective
+ * PropertyValueFactory against Cells.value with a method reference, for the
+ * name and age columns. Each factory is called for every row of a fixed set of
+ * patients, as a table does while scrolling; warm-up rounds let the JIT
+ * compile both paths before the measured rounds, and the median is reported.
+ * Needs no FX toolkit: the factories only read the row from CellDataFeatures.
+ *
+ * Run with: java com.hms.presentation.CellValueFactoryBenchmark [rows] [rounds]
+ */
+public class CellValueFactoryBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+
+    // Consumed results, so the JIT cannot drop the calls
+    private static long sink;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        List<TableColumn.CellDataFeatures<Patient, Object>> cells = new ArrayList<>(rows);
+        LocalDate birth = LocalDate.of(1950, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Patient.Gender gender = Patient.Gender.values()[i % Patient.Gender.values().length];
+            Patient patient = new Patient("First" + i, "Last" + i, birth.plusDays(i % 20_000), gender);
+            patient.setPatientId(i + 1);
+            cells.add(new TableColumn.CellDataFeatures<>(null, null, patient));
+        }
+
+        System.out.println("Cell value factory calls, " + rows + " rows, median of " + rounds + " rounds");
+        report("fullName  PropertyValueFactory", new PropertyValueFactory<>("fullName"), cells, rounds);
+        report("fullName  Cells.value         ", Cells.value(widen(Patient::getFullName)), cells, rounds);
+        report("age       PropertyValueFactory", new PropertyValueFactory<>("age"), cells, rounds);
+        report("age       Cells.value         ", Cells.value(widen(Patient::getAge)), cells, rounds);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static <T> Function<Patient, Object> widen(Function<Patient, T> getter) {
+        return getter::apply;
+    }
+
+    private static void report(String name, Callback<TableColumn.CellDataFeatures<Patient, Object>, ObservableValue<Object>> factory,
+                               List<TableColumn.CellDataFeatures<Patient, Object>> cells, int rounds) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(factory, cells);
+        }
+        long[] nanos = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            nanos[i] = run(factory, cells);
+        }
+        Arrays.sort(nanos);
+        double perCall = (double) nanos[rounds / 2] / cells.size();
+        System.out.println(String.format("  %s  %8.1f ns/call", name, perCall));
+    }
+
+    private static long run(Callback<TableColumn.CellDataFeatures<Patient, Object>, ObservableValue<Object>> factory,
+                            List<TableColumn.CellDataFeatures<Patient, Object>> cells) {
+        long start = System.nanoTime();
+        for (TableColumn.CellDataFeatures<Patient, Object> cell : cells) {
+            sink += factory.call(cell).getValue().hashCode();
+        }
+        return System.nanoTime() - start;
+    }
+}
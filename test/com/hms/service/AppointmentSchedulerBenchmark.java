@@ -0,0 +1,117 @@
+package com.hms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import com.hms.domain.Appointment;
+import com.hms.domain.Doctor;
+
+/**
+ * Benchmark of AppointmentScheduler at clinic scale: hundreds of doctors with
+ * millions of booked slots between them. Every doctor works "Mon-Sun 8-18" and
+ * is booked in most of the day's 30-minute slots, so queries run into long
+ * busy stretches. It reports the booking time and the average time of
+ * isFree, nextFreeSlot, freeDoctors and freeSlots over random queries, each
+ * measured after a warm-up pass over the same number of queries.
+ *
+ * Needs a large heap for the default size, e.g. java -Xmx3g.
+ * Run with: java com.hms.service.AppointmentSchedulerBenchmark [doctors] [bookings] [queries]
+ */
+public class AppointmentSchedulerBenchmark {
+    private static final int SPECIALTIES = 10;
+    private static final int FIRST_HOUR = 8;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int SLOT_MINUTES = 30;
+    private static final double BOOKED_SHARE = 0.8;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    // Consumed results, so the JIT cannot drop the calls
+    private static long sink;
+
+    public static void main(String[] args) {
+        int doctors = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int bookings = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+        AppointmentScheduler scheduler = new AppointmentScheduler();
+        for (int d = 1; d <= doctors; d++) {
+            scheduler.registerDoctor(new Doctor(d, "Doctor " + d, null, specialty(d), null, "Mon-Sun 8-18"));
+        }
+
+        // Book each doctor's slots day by day until every doctor has its share
+        int perDoctor = bookings / doctors;
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        int id = 0;
+        int days = 0;
+        for (int d = 1; d <= doctors; d++) {
+            int booked = 0;
+            int day = 0;
+            for (; booked < perDoctor; day++) {
+                for (int slot = 0; slot < SLOTS_PER_DAY && booked < perDoctor; slot++) {
+                    if (random.nextDouble() < BOOKED_SHARE) {
+                        scheduler.book(new Appointment(++id, 1, d, "Patient", "Doctor " + d, slotTime(day, slot),
+                                Appointment.Status.SCHEDULED, null));
+                        booked++;
+                    }
+                }
+            }
+            days = Math.max(days, day);
+        }
+        double bookSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("Booked %,d appointments for %d doctors over %d days in %.1f s (%.0f ns/booking)",
+                id, doctors, days, bookSeconds, bookSeconds * 1e9 / id));
+
+        LocalDateTime[] times = new LocalDateTime[queries];
+        int[] doctorIds = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            // Any minute of the working day, so queries also land inside bookings
+            times[i] = FIRST_DAY.plusDays(random.nextInt(days)).atTime(FIRST_HOUR, 0)
+                    .plusMinutes(random.nextInt(SLOTS_PER_DAY * SLOT_MINUTES));
+            doctorIds[i] = 1 + random.nextInt(doctors);
+        }
+
+        time("isFree", queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                sink += scheduler.isFree(doctorIds[i], times[i], SLOT_MINUTES) ? 1 : 0;
+            }
+        });
+        time("nextFreeSlot", queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                sink += scheduler.nextFreeSlot(doctorIds[i], times[i], 60).getMinute();
+            }
+        });
+        int specialtyQueries = Math.max(1, queries / 10);
+        time("freeDoctors (" + doctors / SPECIALTIES + " per specialty)", specialtyQueries, () -> {
+            for (int i = 0; i < specialtyQueries; i++) {
+                List<Doctor> free = scheduler.freeDoctors(specialty(doctorIds[i]), times[i], SLOT_MINUTES);
+                sink += free.size();
+            }
+        });
+        int dayQueries = Math.max(1, queries / 100);
+        time("freeSlots (one day, one specialty)", dayQueries, () -> {
+            for (int i = 0; i < dayQueries; i++) {
+                sink += scheduler.freeSlots(specialty(doctorIds[i]), times[i].toLocalDate(), SLOT_MINUTES).size();
+            }
+        });
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void time(String name, int count, Runnable queries) {
+        queries.run();
+        long start = System.nanoTime();
+        queries.run();
+        double nanos = (double) (System.nanoTime() - start) / count;
+        System.out.println(String.format("  %-40s %,10.0f ns/query", name, nanos));
+    }
+
+    private static String specialty(int doctorId) {
+        return "Specialty " + doctorId % SPECIALTIES;
+    }
+
+    private static LocalDateTime slotTime(int day, int slot) {
+        return FIRST_DAY.plusDays(day).atTime(FIRST_HOUR, 0).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+}
@@ -0,0 +1,152 @@
+package com.hms.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.hms.domain.Patient;
+
+/**
+ * Stress check of DataService's copy-on-write lists.
+ * Writer threads add patients in fixed-size batches while reader threads take
+ * snapshots and verify that every snapshot is complete: it only grows, holds
+ * whole batches in order, has no missing or null rows, is indexed by ID and
+ * cannot be modified. Exits with status 1 on the first violation.
+ *
+ * Run with: java com.hms.service.DataServiceStressTest [writers] [readers] [batchesPerWriter]
+ */
+public class DataServiceStressTest {
+    private static final int BATCH_SIZE = 5;
+    // Writer w uses IDs from (w + 1) * ID_RANGE, so writers never collide
+    private static final int ID_RANGE = 10_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int batches = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        DataService store = DataService.getInstance();
+        int base = store.getPatients().size();
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong snapshotsChecked = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> writerThreads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            writerThreads.add(new Thread(() -> {
+                await(start);
+                for (int b = 0; b < batches && failure.get() == null; b++) {
+                    List<Patient> batch = new ArrayList<>(BATCH_SIZE);
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        Patient patient = new Patient();
+                        patient.setPatientId((writer + 1) * ID_RANGE + b * BATCH_SIZE + i);
+                        batch.add(patient);
+                    }
+                    store.addPatients(batch);
+                }
+            }, "stress-writer-" + w));
+        }
+
+        List<Thread> readerThreads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            readerThreads.add(new Thread(() -> {
+                await(start);
+                int lastSize = base;
+                boolean done = false;
+                while (!done && failure.get() == null) {
+                    // One more pass after the writers stop, so the final snapshot is checked too
+                    done = !writing.get();
+                    List<Patient> snapshot = store.getPatients();
+                    String error = check(store, snapshot, base, lastSize, writers);
+                    if (error != null) {
+                        failure.compareAndSet(null, error);
+                    }
+                    lastSize = snapshot.size();
+                    snapshotsChecked.incrementAndGet();
+                }
+            }, "stress-reader-" + r));
+        }
+
+        long began = System.nanoTime();
+        writerThreads.forEach(Thread::start);
+        readerThreads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : writerThreads) {
+            t.join();
+        }
+        writing.set(false);
+        for (Thread t : readerThreads) {
+            t.join();
+        }
+
+        int expected = base + writers * batches * BATCH_SIZE;
+        if (failure.get() == null && store.getPatients().size() != expected) {
+            failure.set("Final list has " + store.getPatients().size() + " patients, expected " + expected);
+        }
+        if (failure.get() != null) {
+            System.err.println("FAILED: " + failure.get());
+            System.exit(1);
+        }
+        System.out.println("OK: " + writers + " writers added " + (expected - base) + " patients while "
+                + readers + " readers checked " + snapshotsChecked.get() + " snapshots in "
+                + (System.nanoTime() - began) / 1_000_000 + " ms");
+    }
+
+    /**
+     * @return Description of what is wrong with the snapshot, or null if it is consistent
+     */
+    private static String check(DataService store, List<Patient> snapshot, int base, int lastSize, int writers) {
+        int size = snapshot.size();
+        if (size < lastSize) {
+            return "Snapshot shrank from " + lastSize + " to " + size;
+        }
+        if ((size - base) % BATCH_SIZE != 0) {
+            return "Snapshot of " + size + " patients ends inside a batch";
+        }
+        int[] nextBatch = new int[writers];
+        for (int start = base; start < size; start += BATCH_SIZE) {
+            Patient first = snapshot.get(start);
+            if (first == null) {
+                return "Null patient at " + start;
+            }
+            int writer = first.getPatientId() / ID_RANGE - 1;
+            int offset = first.getPatientId() % ID_RANGE;
+            if (writer < 0 || writer >= writers || offset % BATCH_SIZE != 0) {
+                return "Patient " + first.getPatientId() + " at " + start + " does not start a batch";
+            }
+            if (offset / BATCH_SIZE != nextBatch[writer]) {
+                return "Writer " + writer + " batch " + offset / BATCH_SIZE + " at " + start
+                        + ", expected batch " + nextBatch[writer];
+            }
+            nextBatch[writer]++;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Patient patient = snapshot.get(start + i);
+                if (patient == null || patient.getPatientId() != first.getPatientId() + i) {
+                    return "Batch starting at " + start + " is torn at row " + (start + i);
+                }
+                if (store.getPatientById(patient.getPatientId()) != patient) {
+                    return "Listed patient " + patient.getPatientId() + " is not indexed";
+                }
+            }
+        }
+        try {
+            snapshot.add(new Patient());
+            return "Snapshot can be modified";
+        } catch (UnsupportedOperationException expected) {
+            return null;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hms.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.hms.domain.User;
+import com.hms.security.CredentialCache;
+
+/**
+ * Login latency during a shift change, when most of the staff logs in within a
+ * few minutes and some retry or log in on a second workstation. Each staff
+ * member logs in one to four times; the logins arrive as a Poisson process
+ * over the window and are checked by DataService.authenticate on a pool of
+ * four threads, as BackgroundLoader runs them. The latency of a login counts
+ * from its arrival, so it includes the time spent queued behind other
+ * PBKDF2 runs. The burst is run once with CredentialCache cleared before every
+ * login and once with the cache in use, and the p50, p99 and maximum latency
+ * of each run are reported.
+ *
+ * DataService opens hms_database.db in the working directory, so run it from a
+ * directory holding a scratch copy of the database.
+ * Run with: java com.hms.service.LoginBurstBenchmark [staff] [windowSeconds]
+ */
+public class LoginBurstBenchmark {
+    private static final int POOL_THREADS = 4;
+    private static final int MAX_LOGINS_PER_USER = 4;
+    private static final int WARMUP_LOGINS = 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        int staff = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        double windowSeconds = args.length > 1 ? Double.parseDouble(args[1]) : 90;
+
+        DataService store = DataService.getInstance();
+        for (int i = 0; i < staff; i++) {
+            store.addUser(new User("nurse" + i, "pw" + i, "Nurse " + i, User.Role.STAFF));
+        }
+        CredentialCache cache = CredentialCache.getInstance();
+        for (int i = 0; i < WARMUP_LOGINS; i++) {
+            cache.clear();
+            store.authenticate("nurse0", "pw0");
+        }
+
+        Random random = new Random(3);
+        List<Integer> logins = new ArrayList<>();
+        for (int i = 0; i < staff; i++) {
+            for (int k = 1 + random.nextInt(MAX_LOGINS_PER_USER); k > 0; k--) {
+                logins.add(i);
+            }
+        }
+        Collections.shuffle(logins, random);
+
+        System.out.println(String.format("%d staff, %d logins over %.0f s, %d threads, %d CPUs",
+                staff, logins.size(), windowSeconds, POOL_THREADS, Runtime.getRuntime().availableProcessors()));
+        for (boolean cached : new boolean[] { false, true }) {
+            cache.clear();
+            long[] latencies = burst(store, logins, windowSeconds, cached, new Random(7));
+            Arrays.sort(latencies);
+            System.out.println(String.format("  %-12s p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms",
+                    cached ? "with cache" : "no cache",
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[(int) (latencies.length * 0.99)] / 1e6,
+                    latencies[latencies.length - 1] / 1e6));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * @return Latency of every login in nanoseconds, from arrival to the end of its check
+     */
+    private static long[] burst(DataService store, List<Integer> logins, double windowSeconds, boolean cached,
+                                Random random) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(POOL_THREADS);
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        long[] latencies = new long[logins.size()];
+        CountDownLatch done = new CountDownLatch(latencies.length);
+        double meanGap = windowSeconds / logins.size();
+        double at = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            int login = i;
+            String username = "nurse" + logins.get(i);
+            String password = "pw" + logins.get(i);
+            // Exponential gaps between arrivals
+            at += -Math.log(1 - random.nextDouble()) * meanGap;
+            arrivals.schedule(() -> {
+                long arrived = System.nanoTime();
+                pool.execute(() -> {
+                    if (!cached) {
+                        CredentialCache.getInstance().clear();
+                    }
+                    if (store.authenticate(username, password) == null) {
+                        System.err.println("Login of " + username + " failed");
+                    }
+                    latencies[login] = System.nanoTime() - arrived;
+                    done.countDown();
+                });
+            }, (long) (at * 1e6), TimeUnit.MICROSECONDS);
+        }
+        done.await();
+        arrivals.shutdown();
+        pool.shutdown();
+        return latencies;
+    }
+}